@@ -0,0 +1,124 @@
+package ilpREST.ilp_submission_1.benchmark;
+
+import ilpREST.ilp_submission_1.dto.*;
+import ilpREST.ilp_submission_1.model.ReferenceData;
+import ilpREST.ilp_submission_1.services.*;
+import ilpREST.ilp_submission_1.testutil.TestRequestFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Offline fixtures for the benchmarks: a fixed fleet, two service points and the standard
+ * restricted areas from {@link TestRequestFactory}, wired into the services without Spring
+ * or the ILP endpoint.
+ */
+final class BenchmarkFixtures {
+
+    static final Position APPLETON_TOWER = TestRequestFactory.getAppletonTower();
+    static final Position OCEAN_TERMINAL = new Position(-3.17732611501824, 55.981186279333656);
+
+    final ReferenceData referenceData;
+    final ReferenceDataService referenceDataService;
+    final PositionService positionService;
+    final AvailabilityService availabilityService;
+    final FlightPathGenerator pathGenerator;
+    final DeliveryPathService deliveryPathService;
+    final DroneService droneService;
+
+    BenchmarkFixtures() {
+        this.referenceData = new ReferenceData(1, drones(), servicePointInfos(), servicePointLocations(), restrictedAreas());
+        this.referenceDataService = new ReferenceDataService("http://offline.invalid") {
+            @Override
+            public ReferenceData current() {
+                return referenceData;
+            }
+        };
+        this.positionService = new PositionService();
+        this.availabilityService = new AvailabilityService(referenceDataService);
+        PlannerMetrics metrics = new PlannerMetrics(new SimpleMeterRegistry());
+        // a zero-waypoint budget disables the leg cache, so every benchmark call really plans its legs
+        this.pathGenerator = new FlightPathGenerator(positionService, new LegPathCache(0), metrics);
+        this.deliveryPathService = new DeliveryPathService(
+                referenceDataService, availabilityService, positionService, pathGenerator, metrics, 0);
+        this.droneService = new DroneService(referenceDataService, availabilityService, positionService);
+    }
+
+    void shutdown() {
+        deliveryPathService.shutdown();
+    }
+
+    private static List<Drone> drones() {
+        List<Drone> drones = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            Drone.Capability cap = new Drone.Capability();
+            cap.setCooling(i % 2 == 0);
+            cap.setHeating(i % 3 == 0);
+            cap.setCapacity(4 + i);
+            cap.setMaxMoves(1500 + 200 * i);
+            cap.setCostPerMove(0.01 + 0.005 * i);
+            cap.setCostInitial(1 + i % 4);
+            cap.setCostFinal(1 + (i * 7) % 3);
+
+            Drone drone = new Drone();
+            drone.setId(String.valueOf(i));
+            drone.setName("Drone " + i);
+            drone.setCapability(cap);
+            drones.add(drone);
+        }
+        return drones;
+    }
+
+    private static List<ServicePointInfo> servicePointInfos() {
+        List<ServicePointInfo> infos = new ArrayList<>();
+        for (long spId = 1; spId <= 2; spId++) {
+            List<ServicePointInfo.ServicePointDrone> spDrones = new ArrayList<>();
+            for (int i = 1; i <= 10; i++) {
+                if ((i + spId) % 3 == 0) {
+                    continue;
+                }
+                List<ServicePointInfo.AvailabilityInfo> windows = new ArrayList<>();
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    windows.add(new ServicePointInfo.AvailabilityInfo(day.name(), LocalTime.MIN, LocalTime.MAX));
+                }
+                ServicePointInfo.ServicePointDrone spDrone = new ServicePointInfo.ServicePointDrone();
+                spDrone.setId(String.valueOf(i));
+                spDrone.setAvailability(windows);
+                spDrones.add(spDrone);
+            }
+            ServicePointInfo info = new ServicePointInfo();
+            info.setServicePointId(spId);
+            info.setDrones(spDrones);
+            infos.add(info);
+        }
+        return infos;
+    }
+
+    private static List<ServicePointLocation> servicePointLocations() {
+        ServicePointLocation appleton = new ServicePointLocation();
+        appleton.setId(1L);
+        appleton.setName("Appleton Tower");
+        appleton.setLocation(APPLETON_TOWER);
+
+        ServicePointLocation ocean = new ServicePointLocation();
+        ocean.setId(2L);
+        ocean.setName("Ocean Terminal");
+        ocean.setLocation(OCEAN_TERMINAL);
+        return List.of(appleton, ocean);
+    }
+
+    private static List<RestrictedArea> restrictedAreas() {
+        List<RestrictedArea> areas = new ArrayList<>();
+        long id = 1;
+        for (RequestRegion.Region region : TestRequestFactory.getStandardRestrictedAreas()) {
+            RestrictedArea area = new RestrictedArea();
+            area.setId(id++);
+            area.setName(region.getName());
+            area.setVertices(region.getVertices());
+            areas.add(area);
+        }
+        return areas;
+    }
+}
@@ -0,0 +1,51 @@
+package ilpREST.ilp_submission_1.benchmark;
+
+import ilpREST.ilp_submission_1.dto.CalcDeliveryPathResponse;
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.dto.RequestRegion;
+import ilpREST.ilp_submission_1.testutil.TestRequestFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full flight path generation (A* per leg) from Appleton Tower, with and without the standard no-fly zones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathfindingBenchmark {
+
+    @Param({"single", "multi"})
+    public String route;
+
+    @Param({"true", "false"})
+    public boolean restricted;
+
+    private BenchmarkFixtures fixtures;
+    private List<MedDispatchRec> deliveries;
+    private List<RequestRegion.Region> regions;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures();
+        deliveries = route.equals("single")
+                ? TestRequestFactory.createSimpleWestDelivery()
+                : TestRequestFactory.createMultiDeliveryRequest();
+        regions = restricted ? TestRequestFactory.getStandardRestrictedAreas() : List.of();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.shutdown();
+    }
+
+    @Benchmark
+    public List<CalcDeliveryPathResponse.DeliveryPath> generateFlightPath() {
+        return fixtures.pathGenerator.generateFlightPath(BenchmarkFixtures.APPLETON_TOWER, deliveries, regions);
+    }
+}
@@ -0,0 +1,48 @@
+package ilpREST.ilp_submission_1.benchmark;
+
+import ilpREST.ilp_submission_1.dto.CalcDeliveryPathResponse;
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.testutil.TestRequestFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-batch planning and availability queries against the offline reference data snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlannerBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int requests;
+
+    private BenchmarkFixtures fixtures;
+    private List<MedDispatchRec> batch;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures();
+        batch = TestRequestFactory.createNDeliveries(requests);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.shutdown();
+    }
+
+    @Benchmark
+    public CalcDeliveryPathResponse calculateDeliveryPath() {
+        return fixtures.deliveryPathService.calculateDeliveryPath(batch);
+    }
+
+    @Benchmark
+    public List<String> queryAvailableDrones() {
+        return fixtures.droneService.queryAvailableDrones(batch);
+    }
+}
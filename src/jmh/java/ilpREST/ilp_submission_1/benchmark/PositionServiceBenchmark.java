@@ -0,0 +1,55 @@
+package ilpREST.ilp_submission_1.benchmark;
+
+import ilpREST.ilp_submission_1.dto.Position;
+import ilpREST.ilp_submission_1.dto.RequestRegion;
+import ilpREST.ilp_submission_1.services.PositionService;
+import ilpREST.ilp_submission_1.testutil.TestRequestFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geometry primitives called inside the A* expansion loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionServiceBenchmark {
+
+    private final PositionService positionService = new PositionService();
+    private List<Position> bristoSquare;
+    private Position inside;
+    private Position outside;
+    private Position start;
+
+    @Param({"0", "22.5", "202.5"})
+    public double angle;
+
+    @Setup
+    public void setUp() {
+        List<RequestRegion.Region> areas = TestRequestFactory.getStandardRestrictedAreas();
+        bristoSquare = areas.get(1).getVertices();
+        inside = TestRequestFactory.getInsideBristoSquare();
+        outside = TestRequestFactory.getAppletonTower();
+        start = TestRequestFactory.getAppletonTower();
+    }
+
+    @Benchmark
+    public boolean isInRegionInside() {
+        return positionService.isInRegion(inside, bristoSquare);
+    }
+
+    @Benchmark
+    public boolean isInRegionOutside() {
+        return positionService.isInRegion(outside, bristoSquare);
+    }
+
+    @Benchmark
+    public Position nextPosition() {
+        return positionService.nextPosition(start, angle);
+    }
+}
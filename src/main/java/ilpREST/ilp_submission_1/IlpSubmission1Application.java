@@ -2,8 +2,10 @@ package ilpREST.ilp_submission_1;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class IlpSubmission1Application {
 
 	public static void main(String[] args) {
@@ -2,8 +2,11 @@ package ilpREST.ilp_submission_1.controller;
 import ilpREST.ilp_submission_1.dto.*;
 import ilpREST.ilp_submission_1.services.*;
 import ilpREST.ilp_submission_1.dto.RequestDistance;
+import ilpREST.ilp_submission_1.model.DeliveryPlan;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 import java.util.*;
 
@@ -16,12 +19,14 @@ public class ApiController {
     private final DeliveryPathService deliveryPathService;
 
     private final GeoJsonService geoJsonService;
+    private final DeliveryPlanJsonWriter planJsonWriter;
 
-    public ApiController(PositionService positionService, DroneService droneService, DeliveryPathService deliveryPathService, GeoJsonService geoJsonService) {
+    public ApiController(PositionService positionService, DroneService droneService, DeliveryPathService deliveryPathService, GeoJsonService geoJsonService, DeliveryPlanJsonWriter planJsonWriter) {
         this.positionService = positionService;
         this.droneService = droneService;
         this.deliveryPathService = deliveryPathService;
         this.geoJsonService = geoJsonService;
+        this.planJsonWriter = planJsonWriter;
 
     }
 
@@ -78,9 +83,42 @@ public class ApiController {
         return ResponseEntity.ok(droneService.queryAvailableDrones(requests));
     }
 
+    /**
+     * Evaluates many request sets against one reference data snapshot; returns one drone-id list per set.
+     */
+    @PostMapping("/queryAvailableDrones/batch")
+    public ResponseEntity<List<List<String>>> queryAvailableDronesBatch(@Valid @RequestBody List<List<MedDispatchRec>> requestSets){
+        return ResponseEntity.ok(droneService.queryAvailableDronesBatch(requestSets));
+    }
+
+    /**
+     * Plans the batch. With {@code stream=true} the response is written drone by drone straight from
+     * the planner's primitive paths, without building the response DTO tree. Only serialisation is
+     * streamed: each drone's legs are grouped across every date of the batch, so the whole plan is
+     * computed and held in memory before the first byte is written, and peak memory still grows with
+     * the plan. Callers that need results as dates finish should use the planning job API
+     * ({@code /api/v1/calcDeliveryPath/jobs}).
+     */
     @PostMapping("/calcDeliveryPath")
-    public ResponseEntity<CalcDeliveryPathResponse> calcDeliveryPath(@Valid @RequestBody List<MedDispatchRec> requests) {
+    public ResponseEntity<?> calcDeliveryPath(@Valid @RequestBody List<MedDispatchRec> requests,
+                                              @RequestParam(name = "stream", defaultValue = "false") boolean stream,
+                                              @RequestParam(name = "format", required = false) String format,
+                                              @RequestHeader(name = "Accept", required = false) String accept) {
         try {
+            if (isCompact(format, accept)) {
+                DeliveryPlan plan = deliveryPathService.planDeliveries(requests);
+                StreamingResponseBody body = out -> planJsonWriter.writeCompact(plan, out);
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(DeliveryPlanJsonWriter.COMPACT_MEDIA_TYPE))
+                        .body(body);
+            }
+            if (stream) {
+                // same JSON, written drone by drone from the primitive plan instead of a DTO tree;
+                // the plan itself is complete before writing starts
+                DeliveryPlan plan = deliveryPathService.planDeliveries(requests);
+                StreamingResponseBody body = out -> planJsonWriter.write(plan, out);
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+            }
             CalcDeliveryPathResponse response = deliveryPathService.calculateDeliveryPath(requests);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -89,8 +127,16 @@ public class ApiController {
     }
 
     @PostMapping("calcDeliveryPathAsGeoJson")
-    public ResponseEntity<GeoJsonFeatureCollection> calcDeliveryPathAsGeoJson(@Valid @RequestBody List<MedDispatchRec> requests){
+    public ResponseEntity<GeoJsonFeatureCollection> calcDeliveryPathAsGeoJson(@Valid @RequestBody List<MedDispatchRec> requests,
+                                                                              @RequestParam(name = "format", required = false) String format,
+                                                                              @RequestHeader(name = "Accept", required = false) String accept){
         try{
+            if (isCompact(format, accept)) {
+                DeliveryPlan plan = deliveryPathService.planDeliveries(requests);
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(DeliveryPlanJsonWriter.COMPACT_MEDIA_TYPE))
+                        .body(geoJsonService.convertCompact(plan));
+            }
             CalcDeliveryPathResponse flightPathsResponse = deliveryPathService.calculateDeliveryPath(requests);
             GeoJsonFeatureCollection res = geoJsonService.convert(flightPathsResponse);
             return ResponseEntity.ok(res);
@@ -100,4 +146,13 @@ public class ApiController {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Compact direction-coded paths are chosen with {@code ?format=compact} or by accepting
+     * {@value DeliveryPlanJsonWriter#COMPACT_MEDIA_TYPE}.
+     */
+    private static boolean isCompact(String format, String accept) {
+        return "compact".equalsIgnoreCase(format)
+                || (accept != null && accept.contains(DeliveryPlanJsonWriter.COMPACT_MEDIA_TYPE));
+    }
 }
@@ -0,0 +1,75 @@
+package ilpREST.ilp_submission_1.controller;
+import ilpREST.ilp_submission_1.dto.*;
+import ilpREST.ilp_submission_1.model.PlanningJob;
+import ilpREST.ilp_submission_1.services.PlanningJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous calcDeliveryPath: submit a batch, poll its status, fetch the (partial) result, cancel.
+ * <ul>
+ *   <li>{@code POST /jobs} - 202 with the job status and a Location header, 429 if the queue is full</li>
+ *   <li>{@code GET /jobs/{id}} - status and date progress</li>
+ *   <li>{@code GET /jobs/{id}/result} - 200 with the full plan once completed; 202 with the dates
+ *       finished so far while queued or running; 409 with the partial plan if cancelled or failed</li>
+ *   <li>{@code DELETE /jobs/{id}} - cancel; the job keeps any dates already planned</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/api/v1/calcDeliveryPath/jobs")
+public class PlanningJobController {
+
+    private final PlanningJobService jobService;
+
+    public PlanningJobController(PlanningJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<PlanningJobStatus> submit(@Valid @RequestBody List<MedDispatchRec> requests) {
+        try {
+            PlanningJob job = jobService.submit(requests);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/calcDeliveryPath/jobs/" + job.getId()))
+                    .body(PlanningJobService.describe(job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "5").build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PlanningJobStatus> status(@PathVariable String id) {
+        return jobService.find(id)
+                .map(job -> ResponseEntity.ok(PlanningJobService.describe(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<CalcDeliveryPathResponse> result(@PathVariable String id) {
+        Optional<PlanningJob> found = jobService.find(id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        PlanningJob job = found.get();
+        PlanningJob.Status status = job.getStatus();
+        CalcDeliveryPathResponse body = job.currentPlan().toResponse();
+
+        return switch (status) {
+            case COMPLETED -> ResponseEntity.ok(body);
+            case QUEUED, RUNNING -> ResponseEntity.status(HttpStatus.ACCEPTED).body(body);
+            case CANCELLED, FAILED -> ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+        };
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<PlanningJobStatus> cancel(@PathVariable String id) {
+        return jobService.cancel(id)
+                .map(job -> ResponseEntity.ok(PlanningJobService.describe(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,46 @@
+package ilpREST.ilp_submission_1.dto;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+public class PlanningJobStatus {
+    @JsonProperty("jobId")
+    private String jobId;
+    @JsonProperty("status")
+    private String status;
+    @JsonProperty("submittedAt")
+    private Instant submittedAt;
+    @JsonProperty("startedAt")
+    private Instant startedAt;
+    @JsonProperty("finishedAt")
+    private Instant finishedAt;
+    @JsonProperty("completedDates")
+    private int completedDates;
+    @JsonProperty("totalDates")
+    private int totalDates;
+    @JsonProperty("error")
+    private String error;
+
+    public PlanningJobStatus() {}
+
+    public PlanningJobStatus(String jobId, String status, Instant submittedAt, Instant startedAt,
+                             Instant finishedAt, int completedDates, int totalDates, String error) {
+        this.jobId = jobId;
+        this.status = status;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.completedDates = completedDates;
+        this.totalDates = totalDates;
+        this.error = error;
+    }
+
+    public String getJobId() { return jobId; }
+    public String getStatus() { return status; }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public int getCompletedDates() { return completedDates; }
+    public int getTotalDates() { return totalDates; }
+    public String getError() { return error; }
+}
@@ -1,6 +1,5 @@
 package ilpREST.ilp_submission_1.model;
 
-import ilpREST.ilp_submission_1.dto.CalcDeliveryPathResponse;
 import ilpREST.ilp_submission_1.dto.MedDispatchRec;
 import java.util.List;
 
@@ -8,18 +7,18 @@ public class AssignedFlight {
     private final String droneId;
     private final Long servicePointId;
     private final List<MedDispatchRec> deliveries;
-    private final List<CalcDeliveryPathResponse.DeliveryPath> deliveryPaths;
+    private final List<FlightLeg> legs;
     private final int totalMoves;
     private final double flightCost;
 
     public AssignedFlight(String droneId, Long servicePointId,
                           List<MedDispatchRec> deliveries,
-                          List<CalcDeliveryPathResponse.DeliveryPath> deliveryPaths,
+                          List<FlightLeg> legs,
                           int totalMoves, double flightCost) {
         this.droneId = droneId;
         this.servicePointId = servicePointId;
         this.deliveries = deliveries;
-        this.deliveryPaths = deliveryPaths;
+        this.legs = legs;
         this.totalMoves = totalMoves;
         this.flightCost = flightCost;
     }
@@ -27,7 +26,7 @@ public class AssignedFlight {
     public String getDroneId() { return droneId; }
     public Long getServicePointId() { return servicePointId; }
     public List<MedDispatchRec> getDeliveries() { return deliveries; }
-    public List<CalcDeliveryPathResponse.DeliveryPath> getDeliveryPaths() { return deliveryPaths; }
+    public List<FlightLeg> getLegs() { return legs; }
     public int getTotalMoves() { return totalMoves; }
     public double getFlightCost() { return flightCost; }
 }
\ No newline at end of file
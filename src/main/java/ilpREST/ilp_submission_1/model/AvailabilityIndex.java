@@ -0,0 +1,175 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.ServicePointInfo;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Availability windows compiled per drone and per (drone, service point) into sorted, merged
+ * second-of-day intervals for each day of the week. Lookups are a binary search and allocate nothing,
+ * and agree with {@code AvailabilityService.isAvailableAtServicePoint} for windows given in whole seconds
+ * (the ILP sends "HH:mm:ss").
+ */
+public final class AvailabilityIndex {
+
+    public static final AvailabilityIndex EMPTY = new AvailabilityIndex(Map.of(), Map.of());
+
+    private final Map<String, Schedule> byDrone;
+    private final Map<String, Map<Long, Schedule>> byDroneAndServicePoint;
+
+    private AvailabilityIndex(Map<String, Schedule> byDrone, Map<String, Map<Long, Schedule>> byDroneAndServicePoint) {
+        this.byDrone = byDrone;
+        this.byDroneAndServicePoint = byDroneAndServicePoint;
+    }
+
+    public static AvailabilityIndex compile(List<ServicePointInfo> spInfos) {
+        if (spInfos == null || spInfos.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, List<ServicePointInfo.AvailabilityInfo>> droneWindows = new HashMap<>();
+        Map<String, Map<Long, Schedule>> bySp = new HashMap<>();
+        for (ServicePointInfo spi : spInfos) {
+            if (spi.getDrones() == null) {
+                continue;
+            }
+            for (ServicePointInfo.ServicePointDrone spd : spi.getDrones()) {
+                List<ServicePointInfo.AvailabilityInfo> windows =
+                        spd.getAvailability() == null ? List.of() : spd.getAvailability();
+                droneWindows.computeIfAbsent(spd.getId(), k -> new ArrayList<>()).addAll(windows);
+                bySp.computeIfAbsent(spd.getId(), k -> new HashMap<>())
+                        .put(spi.getServicePointId(), Schedule.compile(windows));
+            }
+        }
+
+        Map<String, Schedule> byDrone = new HashMap<>();
+        droneWindows.forEach((droneId, windows) -> byDrone.put(droneId, Schedule.compile(windows)));
+        Map<String, Map<Long, Schedule>> frozen = new HashMap<>();
+        bySp.forEach((droneId, spMap) -> frozen.put(droneId, Collections.unmodifiableMap(spMap)));
+        return new AvailabilityIndex(Collections.unmodifiableMap(byDrone), Collections.unmodifiableMap(frozen));
+    }
+
+    /**
+     * @return the union of the drone's windows over all its service points, or {@link Schedule#NEVER}
+     */
+    public Schedule forDrone(String droneId) {
+        return byDrone.getOrDefault(droneId, Schedule.NEVER);
+    }
+
+    /**
+     * @return the drone's windows at one service point, or {@link Schedule#NEVER}
+     */
+    public Schedule forDrone(String droneId, long servicePointId) {
+        Map<Long, Schedule> spMap = byDroneAndServicePoint.get(droneId);
+        if (spMap == null) {
+            return Schedule.NEVER;
+        }
+        return spMap.getOrDefault(servicePointId, Schedule.NEVER);
+    }
+
+    /**
+     * Weekly availability: for each day, disjoint inclusive [from, until] intervals in seconds of the
+     * day, flattened as from0, until0, from1, until1, ... in ascending order.
+     */
+    public static final class Schedule {
+        public static final Schedule NEVER = new Schedule(new EnumMap<>(DayOfWeek.class));
+
+        private static final int[] NONE = new int[0];
+
+        private final EnumMap<DayOfWeek, int[]> intervals;
+
+        private Schedule(EnumMap<DayOfWeek, int[]> intervals) {
+            this.intervals = intervals;
+        }
+
+        static Schedule compile(List<ServicePointInfo.AvailabilityInfo> windows) {
+            EnumMap<DayOfWeek, List<int[]>> byDay = new EnumMap<>(DayOfWeek.class);
+            for (ServicePointInfo.AvailabilityInfo window : windows) {
+                DayOfWeek day = parseDay(window.getDayOfWeek());
+                if (day == null || window.getFrom() == null || window.getUntil() == null) {
+                    continue;
+                }
+                int from = window.getFrom().toSecondOfDay();
+                int until = window.getUntil().toSecondOfDay();
+                // a window that ends before it starts never matched a linear scan either
+                if (from <= until) {
+                    byDay.computeIfAbsent(day, k -> new ArrayList<>()).add(new int[]{from, until});
+                }
+            }
+
+            EnumMap<DayOfWeek, int[]> intervals = new EnumMap<>(DayOfWeek.class);
+            byDay.forEach((day, list) -> intervals.put(day, merge(list)));
+            return new Schedule(intervals);
+        }
+
+        private static DayOfWeek parseDay(String name) {
+            if (name == null) {
+                return null;
+            }
+            try {
+                return DayOfWeek.valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private static int[] merge(List<int[]> windows) {
+            windows.sort(Comparator.comparingInt(w -> w[0]));
+            int[] merged = new int[windows.size() * 2];
+            int n = 0;
+            for (int[] w : windows) {
+                // only overlapping windows merge: a gap of one second still excludes fractional times inside it
+                if (n > 0 && w[0] <= merged[n - 1]) {
+                    merged[n - 1] = Math.max(merged[n - 1], w[1]);
+                } else {
+                    merged[n++] = w[0];
+                    merged[n++] = w[1];
+                }
+            }
+            return Arrays.copyOf(merged, n);
+        }
+
+        public boolean isAvailable(LocalDate date, LocalTime time) {
+            return isAvailable(date.getDayOfWeek(), time);
+        }
+
+        public boolean isAvailable(DayOfWeek day, LocalTime time) {
+            int[] dayIntervals = intervals.getOrDefault(day, NONE);
+            if (dayIntervals.length == 0) {
+                return false;
+            }
+            int second = time.toSecondOfDay();
+            boolean fractional = time.getNano() != 0;
+
+            // last interval starting at or before the requested second
+            int lo = 0, hi = dayIntervals.length / 2 - 1, found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (dayIntervals[2 * mid] <= second) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            if (found < 0) {
+                return false;
+            }
+            int until = dayIntervals[2 * found + 1];
+            return fractional ? second < until : second <= until;
+        }
+
+        public boolean isEmpty() {
+            return intervals.isEmpty();
+        }
+
+        /**
+         * The flattened intervals for one day (empty if none); callers must not modify the array.
+         */
+        int[] intervals(DayOfWeek day) {
+            return intervals.getOrDefault(day, NONE);
+        }
+    }
+}
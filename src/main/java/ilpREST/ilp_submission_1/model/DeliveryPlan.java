@@ -0,0 +1,57 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.CalcDeliveryPathResponse;
+
+import java.util.*;
+
+/**
+ * Result of planning a batch, before it is turned into a response: totals plus each drone's
+ * legs in response order (drone id order, then flight order). Paths stay in primitive form.
+ */
+public class DeliveryPlan {
+    private final double totalCost;
+    private final int totalMoves;
+    private final Map<String, List<FlightLeg>> legsByDrone;
+
+    public DeliveryPlan(double totalCost, int totalMoves, Map<String, List<FlightLeg>> legsByDrone) {
+        this.totalCost = totalCost;
+        this.totalMoves = totalMoves;
+        this.legsByDrone = legsByDrone;
+    }
+
+    public double getTotalCost() { return totalCost; }
+    public int getTotalMoves() { return totalMoves; }
+    public Map<String, List<FlightLeg>> getLegsByDrone() { return legsByDrone; }
+
+    /**
+     * Combines plans of disjoint batches (e.g. date partitions, in date order) into one, regrouped
+     * by drone id with each drone's legs kept in the order the plans were given.
+     */
+    public static DeliveryPlan merge(List<DeliveryPlan> plans) {
+        Map<String, List<FlightLeg>> legsByDrone = new TreeMap<>();
+        double totalCost = 0.0;
+        int totalMoves = 0;
+        for (DeliveryPlan plan : plans) {
+            totalCost += plan.getTotalCost();
+            totalMoves += plan.getTotalMoves();
+            for (Map.Entry<String, List<FlightLeg>> entry : plan.getLegsByDrone().entrySet()) {
+                legsByDrone.computeIfAbsent(entry.getKey(), id -> new ArrayList<>()).addAll(entry.getValue());
+            }
+        }
+        return new DeliveryPlan(totalCost, totalMoves, legsByDrone);
+    }
+
+    public CalcDeliveryPathResponse toResponse() {
+        List<CalcDeliveryPathResponse.DronePath> dronePaths = new ArrayList<>(legsByDrone.size());
+        for (Map.Entry<String, List<FlightLeg>> entry : legsByDrone.entrySet()) {
+            List<CalcDeliveryPathResponse.DeliveryPath> deliveryPaths = new ArrayList<>(entry.getValue().size());
+            // planner paths only become Positions here, lazily, as the response is serialised
+            for (FlightLeg leg : entry.getValue()) {
+                deliveryPaths.add(new CalcDeliveryPathResponse.DeliveryPath(
+                        leg.getDeliveryId(), leg.getPath().toPositions()));
+            }
+            dronePaths.add(new CalcDeliveryPathResponse.DronePath(entry.getKey(), deliveryPaths));
+        }
+        return new CalcDeliveryPathResponse(totalCost, totalMoves, dronePaths);
+    }
+}
@@ -0,0 +1,125 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.AttributeQuery;
+import ilpREST.ilp_submission_1.model.DroneQueryIndex.Attribute;
+import ilpREST.ilp_submission_1.model.DroneQueryIndex.Comparison;
+
+import java.util.*;
+
+/**
+ * An attribute query parsed once into typed clauses, all of which a drone must satisfy. Attribute,
+ * operator and value are normalised here instead of per drone, and {@link #getKey()} is the same for
+ * queries that differ only in case, whitespace, clause order or number formatting.
+ */
+public final class DroneQuery {
+
+    private static final Map<String, Comparison> OPERATORS = Map.of(
+            "=", Comparison.EQ,
+            "!=", Comparison.NE,
+            "<", Comparison.LT,
+            "<=", Comparison.LE,
+            ">", Comparison.GT,
+            ">=", Comparison.GE
+    );
+
+    private record Clause(Attribute attribute, Comparison op, double value, boolean flag) {
+        String key() {
+            return attribute.isNumeric()
+                    ? attribute.key() + op + value
+                    : attribute.key() + "=" + flag;
+        }
+    }
+
+    // null when some clause can never hold (unknown attribute or operator, unparsable number)
+    private final List<Clause> clauses;
+    private final String key;
+
+    private DroneQuery(List<Clause> clauses) {
+        this.clauses = clauses;
+        if (clauses == null) {
+            this.key = "!";
+        } else {
+            this.key = String.join("&", clauses.stream().map(Clause::key).sorted().distinct().toList());
+        }
+    }
+
+    /**
+     * Compiles a {@code /query} body. Booleans ignore the operator; numbers support
+     * {@code =, !=, <, <=, >, >=}. An empty list matches every drone.
+     */
+    public static DroneQuery compile(List<AttributeQuery> queries) {
+        List<Clause> clauses = new ArrayList<>(queries.size());
+        boolean never = false;
+        for (AttributeQuery q : queries) {
+            String attr = q.getAttribute().toLowerCase().strip();
+            String op = q.getOperator().toLowerCase().strip();
+            String val = q.getValue().toLowerCase().strip();
+
+            Attribute attribute = Attribute.of(attr);
+            if (attribute == null) {
+                never = true;
+            } else if (!attribute.isNumeric()) {
+                clauses.add(new Clause(attribute, Comparison.EQ, 0, Boolean.parseBoolean(val)));
+            } else {
+                Comparison comparison = OPERATORS.get(op);
+                Double value = parseNumber(val);
+                if (comparison == null || value == null) {
+                    never = true;
+                } else {
+                    clauses.add(new Clause(attribute, comparison, value + 0.0, false));
+                }
+            }
+        }
+        return new DroneQuery(never ? null : clauses);
+    }
+
+    /**
+     * Compiles a {@code /queryAsPath} lookup: one equality on the attribute.
+     * @throws NumberFormatException if a numeric attribute is given a value that is not a number
+     */
+    public static DroneQuery equality(String attribute, String value) {
+        Attribute attr = Attribute.of(attribute.toLowerCase().strip());
+        if (attr == null) {
+            return new DroneQuery(null);
+        }
+        if (!attr.isNumeric()) {
+            return new DroneQuery(List.of(new Clause(attr, Comparison.EQ, 0, Boolean.parseBoolean(value))));
+        }
+        return new DroneQuery(List.of(new Clause(attr, Comparison.EQ, Double.parseDouble(value) + 0.0, false)));
+    }
+
+    private static Double parseNumber(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return ids of the matching drones, in snapshot order
+     */
+    public List<String> evaluate(DroneQueryIndex index) {
+        List<String> ids = new ArrayList<>();
+        if (clauses == null) {
+            return ids;
+        }
+        BitSet result = index.all();
+        for (Clause clause : clauses) {
+            if (result.isEmpty()) {
+                break;
+            }
+            result.and(clause.attribute().isNumeric()
+                    ? index.matching(clause.attribute(), clause.op(), clause.value())
+                    : index.matching(clause.attribute(), clause.flag()));
+        }
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            ids.add(index.drone(i).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,202 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.Drone;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Per-attribute column index over the drones of one snapshot, for attribute queries. Numeric
+ * attributes are kept sorted so ordering comparisons are binary searches, and grouped by value so
+ * equality is a hash lookup; the boolean attributes are bitsets. Drone i is {@code drones.get(i)}.
+ * Drones without capabilities match no attribute.
+ */
+public final class DroneQueryIndex {
+
+    public enum Attribute {
+        CAPACITY("capacity", Drone.Capability::getCapacity),
+        MAX_MOVES("maxmoves", Drone.Capability::getMaxMoves),
+        COST_PER_MOVE("costpermove", Drone.Capability::getCostPerMove),
+        COST_INITIAL("costinitial", Drone.Capability::getCostInitial),
+        COST_FINAL("costfinal", Drone.Capability::getCostFinal),
+        COOLING("cooling", null),
+        HEATING("heating", null);
+
+        private final String key;
+        private final ToDoubleFunction<Drone.Capability> numeric;
+
+        Attribute(String key, ToDoubleFunction<Drone.Capability> numeric) {
+            this.key = key;
+            this.numeric = numeric;
+        }
+
+        public String key() { return key; }
+        public boolean isNumeric() { return numeric != null; }
+
+        /**
+         * @param name attribute name, already lower-cased and stripped
+         * @return the attribute, or null if there is none by that name
+         */
+        public static Attribute of(String name) {
+            for (Attribute attribute : values()) {
+                if (attribute.key.equals(name)) {
+                    return attribute;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final List<Drone> drones;
+    private final BitSet withCapability = new BitSet();
+    private final BitSet cooling = new BitSet();
+    private final BitSet heating = new BitSet();
+    private final EnumMap<Attribute, NumericColumn> columns = new EnumMap<>(Attribute.class);
+
+    private DroneQueryIndex(List<Drone> drones) {
+        this.drones = drones;
+        for (int i = 0; i < drones.size(); i++) {
+            Drone.Capability cap = drones.get(i).getCapability();
+            if (cap == null) {
+                continue;
+            }
+            withCapability.set(i);
+            if (cap.isCooling()) cooling.set(i);
+            if (cap.isHeating()) heating.set(i);
+        }
+        for (Attribute attribute : Attribute.values()) {
+            if (attribute.isNumeric()) {
+                columns.put(attribute, new NumericColumn(drones, withCapability, attribute.numeric));
+            }
+        }
+    }
+
+    public static DroneQueryIndex build(List<Drone> drones) {
+        return new DroneQueryIndex(drones);
+    }
+
+    public int size() {
+        return drones.size();
+    }
+
+    public Drone drone(int index) {
+        return drones.get(index);
+    }
+
+    /**
+     * @return a new bitset of every drone, with or without capabilities
+     */
+    public BitSet all() {
+        BitSet result = new BitSet(drones.size());
+        result.set(0, drones.size());
+        return result;
+    }
+
+    /**
+     * @return a new bitset of the drones whose boolean attribute equals the value
+     */
+    public BitSet matching(Attribute attribute, boolean value) {
+        BitSet flags = attribute == Attribute.COOLING ? cooling : heating;
+        BitSet result = (BitSet) withCapability.clone();
+        if (value) {
+            result.and(flags);
+        } else {
+            result.andNot(flags);
+        }
+        return result;
+    }
+
+    /**
+     * @return a new bitset of the drones whose numeric attribute compares to the value as {@code drone op value}
+     */
+    public BitSet matching(Attribute attribute, Comparison op, double value) {
+        return columns.get(attribute).matching(op, value, withCapability);
+    }
+
+    public enum Comparison { EQ, NE, LT, LE, GT, GE }
+
+    private static final class NumericColumn {
+        // ascending values of the drones with capabilities, NaN excluded; order[k] is the drone holding sorted[k]
+        private final double[] sorted;
+        private final int[] order;
+        private final Map<Double, BitSet> byValue = new HashMap<>();
+
+        NumericColumn(List<Drone> drones, BitSet withCapability, ToDoubleFunction<Drone.Capability> getter) {
+            List<Integer> indexed = new ArrayList<>();
+            for (int i = withCapability.nextSetBit(0); i >= 0; i = withCapability.nextSetBit(i + 1)) {
+                double value = getter.applyAsDouble(drones.get(i).getCapability());
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                indexed.add(i);
+                // -0.0 and 0.0 compare equal, so they share one key
+                byValue.computeIfAbsent(value + 0.0, k -> new BitSet()).set(i);
+            }
+            indexed.sort((a, b) -> Double.compare(
+                    getter.applyAsDouble(drones.get(a).getCapability()) + 0.0,
+                    getter.applyAsDouble(drones.get(b).getCapability()) + 0.0));
+            this.order = indexed.stream().mapToInt(Integer::intValue).toArray();
+            this.sorted = new double[order.length];
+            for (int k = 0; k < order.length; k++) {
+                sorted[k] = getter.applyAsDouble(drones.get(order[k]).getCapability()) + 0.0;
+            }
+        }
+
+        BitSet matching(Comparison op, double value, BitSet withCapability) {
+            if (Double.isNaN(value)) {
+                // every comparison with NaN is false, except !=
+                return op == Comparison.NE ? (BitSet) withCapability.clone() : new BitSet();
+            }
+            switch (op) {
+                case EQ: {
+                    BitSet equal = byValue.get(value + 0.0);
+                    return equal == null ? new BitSet() : (BitSet) equal.clone();
+                }
+                case NE: {
+                    BitSet result = (BitSet) withCapability.clone();
+                    BitSet equal = byValue.get(value + 0.0);
+                    if (equal != null) {
+                        result.andNot(equal);
+                    }
+                    return result;
+                }
+                case LT:
+                    return range(0, firstNotBelow(value));
+                case LE:
+                    return range(0, firstAbove(value));
+                case GT:
+                    return range(firstAbove(value), sorted.length);
+                case GE:
+                    return range(firstNotBelow(value), sorted.length);
+                default:
+                    throw new IllegalArgumentException("Unknown comparison " + op);
+            }
+        }
+
+        private BitSet range(int from, int to) {
+            BitSet result = new BitSet();
+            for (int k = from; k < to; k++) {
+                result.set(order[k]);
+            }
+            return result;
+        }
+
+        private int firstNotBelow(double value) {
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] < value) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        private int firstAbove(double value) {
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] <= value) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.Drone;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Columnar view of the fleet for capability pre-filtering. Drone i is {@code drones.get(i)} of the
+ * snapshot; capacities are kept sorted with one bitset per capacity threshold, and cooling, heating
+ * and per-day availability are bitsets, so "which drones can serve this request" is a few ANDs.
+ * Answers agree with {@link Drone#canHandle} and {@link AvailabilityIndex#forDrone(String)}.
+ */
+public final class FleetIndex {
+    private final List<Drone> drones;
+
+    // sortedCapacities ascending (NaN last); atLeast[k] = drones whose capacity is not below sortedCapacities[k]
+    private final double[] sortedCapacities;
+    private final BitSet[] atLeast;
+    private final BitSet cooling = new BitSet();
+    private final BitSet heating = new BitSet();
+
+    // per day: drones available exactly at each breakpoint second, and strictly between consecutive breakpoints
+    private final EnumMap<DayOfWeek, DaySlots> slotsByDay = new EnumMap<>(DayOfWeek.class);
+
+    private FleetIndex(List<Drone> drones, AvailabilityIndex availability) {
+        this.drones = drones;
+        int n = drones.size();
+
+        List<Integer> withCapability = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Drone.Capability cap = drones.get(i).getCapability();
+            if (cap == null) {
+                continue;
+            }
+            withCapability.add(i);
+            if (cap.isCooling()) cooling.set(i);
+            if (cap.isHeating()) heating.set(i);
+        }
+        withCapability.sort((a, b) -> Double.compare(capacity(a), capacity(b)));
+
+        int m = withCapability.size();
+        this.sortedCapacities = new double[m];
+        this.atLeast = new BitSet[m + 1];
+        atLeast[m] = new BitSet();
+        for (int k = m - 1; k >= 0; k--) {
+            int drone = withCapability.get(k);
+            sortedCapacities[k] = capacity(drone);
+            atLeast[k] = (BitSet) atLeast[k + 1].clone();
+            atLeast[k].set(drone);
+        }
+
+        for (DayOfWeek day : DayOfWeek.values()) {
+            slotsByDay.put(day, DaySlots.build(day, drones, availability));
+        }
+    }
+
+    public static FleetIndex build(List<Drone> drones, AvailabilityIndex availability) {
+        return new FleetIndex(drones, availability);
+    }
+
+    public int size() {
+        return drones.size();
+    }
+
+    public Drone drone(int index) {
+        return drones.get(index);
+    }
+
+    /**
+     * @return a new bitset of the drones for which {@code canHandle(capacity, needsCooling, needsHeating)} holds
+     */
+    public BitSet capableDrones(double capacity, boolean needsCooling, boolean needsHeating) {
+        BitSet result = (BitSet) atLeast[firstNotBelow(capacity)].clone();
+        if (needsCooling) result.and(cooling);
+        if (needsHeating) result.and(heating);
+        return result;
+    }
+
+    /**
+     * @return a new bitset of the drones that can handle the requirements and are available at some
+     * service point at the given date and time
+     */
+    public BitSet capableDrones(double capacity, boolean needsCooling, boolean needsHeating,
+                                LocalDate date, LocalTime time) {
+        BitSet result = capableDrones(capacity, needsCooling, needsHeating);
+        result.and(availableDrones(date, time));
+        return result;
+    }
+
+    /**
+     * @return the drones available at some service point at the given date and time; shared, do not modify
+     */
+    public BitSet availableDrones(LocalDate date, LocalTime time) {
+        return slotsByDay.get(date.getDayOfWeek()).at(time);
+    }
+
+    private double capacity(int drone) {
+        return drones.get(drone).getCapability().getCapacity();
+    }
+
+    // first k with !(sortedCapacities[k] < capacity), the same comparison canHandle makes
+    private int firstNotBelow(double capacity) {
+        int lo = 0, hi = sortedCapacities.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedCapacities[mid] < capacity) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static final class DaySlots {
+        private static final BitSet NONE = new BitSet();
+
+        private final int[] breakpoints;
+        private final BitSet[] atPoint;
+        private final BitSet[] afterPoint;
+
+        private DaySlots(int[] breakpoints, BitSet[] atPoint, BitSet[] afterPoint) {
+            this.breakpoints = breakpoints;
+            this.atPoint = atPoint;
+            this.afterPoint = afterPoint;
+        }
+
+        static DaySlots build(DayOfWeek day, List<Drone> drones, AvailabilityIndex availability) {
+            int[][] intervals = new int[drones.size()][];
+            TreeSet<Integer> points = new TreeSet<>();
+            for (int i = 0; i < drones.size(); i++) {
+                intervals[i] = availability.forDrone(drones.get(i).getId()).intervals(day);
+                for (int bound : intervals[i]) {
+                    points.add(bound);
+                }
+            }
+
+            int[] breakpoints = points.stream().mapToInt(Integer::intValue).toArray();
+            BitSet[] atPoint = new BitSet[breakpoints.length];
+            BitSet[] afterPoint = new BitSet[breakpoints.length];
+            for (int k = 0; k < breakpoints.length; k++) {
+                atPoint[k] = new BitSet();
+                afterPoint[k] = new BitSet();
+            }
+            for (int i = 0; i < drones.size(); i++) {
+                int[] droneIntervals = intervals[i];
+                for (int w = 0; w < droneIntervals.length; w += 2) {
+                    int first = Arrays.binarySearch(breakpoints, droneIntervals[w]);
+                    int last = Arrays.binarySearch(breakpoints, droneIntervals[w + 1]);
+                    for (int k = first; k <= last; k++) {
+                        atPoint[k].set(i);
+                        if (k < last) {
+                            afterPoint[k].set(i);
+                        }
+                    }
+                }
+            }
+            return new DaySlots(breakpoints, atPoint, afterPoint);
+        }
+
+        BitSet at(LocalTime time) {
+            int second = time.toSecondOfDay();
+            int k = Arrays.binarySearch(breakpoints, second);
+            if (k >= 0) {
+                // a fractional time lies just after the breakpoint
+                return time.getNano() == 0 ? atPoint[k] : afterPoint[k];
+            }
+            int before = -k - 2;
+            return before < 0 ? NONE : afterPoint[before];
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.pathfinding.CoordinatePath;
+
+/**
+ * One planned leg of a flight: the path to a delivery, or the return leg (null delivery id).
+ */
+public class FlightLeg {
+    private final Integer deliveryId;
+    private final CoordinatePath path;
+
+    public FlightLeg(Integer deliveryId, CoordinatePath path) {
+        this.deliveryId = deliveryId;
+        this.path = path;
+    }
+
+    public Integer getDeliveryId() { return deliveryId; }
+    public CoordinatePath getPath() { return path; }
+}
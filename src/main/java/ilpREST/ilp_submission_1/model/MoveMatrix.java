@@ -0,0 +1,126 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.dto.Position;
+
+import java.util.*;
+
+/**
+ * Straight-line move estimates, {@code ceil(distance / step)}, between the service points and the
+ * deliveries of one planning batch, so candidate evaluation reads a table instead of recomputing the
+ * same distances for every drone and every greedy round. Service point s is point s and delivery d
+ * (its position in the batch) is point {@code servicePointCount() + d}; counts are symmetric and equal
+ * to {@code FlightPathGenerator.calculateTotalMoves} leg by leg.
+ * <p>
+ * The service point rows are filled up front. Delivery-to-delivery counts are filled as they are first
+ * read, since nearest-neighbour flights only ever look at a small part of that block; batches over
+ * {@value #MAX_DENSE_DELIVERIES} deliveries compute them on every read instead of holding the block.
+ */
+public final class MoveMatrix {
+    private static final int MAX_DENSE_DELIVERIES = 2048;
+
+    private final double step;
+    private final int servicePoints;
+    private final int deliveries;
+    private final double[] lngs;
+    private final double[] lats;
+    private final Map<Long, Integer> servicePointIndex = new HashMap<>();
+    private final Map<MedDispatchRec, Integer> deliveryIndex = new IdentityHashMap<>();
+    // moves between service point s and delivery d at s * deliveries + d
+    private final int[] servicePointMoves;
+    // moves between deliveries i and j plus one at i * deliveries + j, 0 until first read; null if not kept.
+    // Concurrent readers may both fill an entry, with the same value.
+    private final int[] deliveryMoves;
+
+    private MoveMatrix(Map<Long, Position> servicePointPositions, List<MedDispatchRec> batch, double step) {
+        this.step = step;
+        this.servicePoints = (int) servicePointPositions.values().stream().filter(Objects::nonNull).count();
+        this.deliveries = batch.size();
+        this.lngs = new double[servicePoints + deliveries];
+        this.lats = new double[servicePoints + deliveries];
+
+        int point = 0;
+        for (Map.Entry<Long, Position> entry : servicePointPositions.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            servicePointIndex.put(entry.getKey(), point);
+            lngs[point] = entry.getValue().getLng();
+            lats[point] = entry.getValue().getLat();
+            point++;
+        }
+        for (MedDispatchRec request : batch) {
+            deliveryIndex.put(request, point);
+            lngs[point] = request.getDelivery().getLng();
+            lats[point] = request.getDelivery().getLat();
+            point++;
+        }
+
+        this.servicePointMoves = new int[servicePoints * deliveries];
+        for (int s = 0; s < servicePoints; s++) {
+            for (int d = 0; d < deliveries; d++) {
+                servicePointMoves[s * deliveries + d] = compute(s, servicePoints + d);
+            }
+        }
+        this.deliveryMoves = deliveries <= MAX_DENSE_DELIVERIES ? new int[deliveries * deliveries] : null;
+    }
+
+    public static MoveMatrix build(Map<Long, Position> servicePointPositions, List<MedDispatchRec> batch, double step) {
+        return new MoveMatrix(servicePointPositions, batch, step);
+    }
+
+    public int servicePointCount() {
+        return servicePoints;
+    }
+
+    /**
+     * @return the point of the service point, or -1 if it has no position
+     */
+    public int servicePoint(Long servicePointId) {
+        Integer point = servicePointIndex.get(servicePointId);
+        return point == null ? -1 : point;
+    }
+
+    /**
+     * @return the point of a delivery of this batch
+     * @throws IllegalArgumentException if the request is not part of the batch
+     */
+    public int delivery(MedDispatchRec request) {
+        Integer point = deliveryIndex.get(request);
+        if (point == null) {
+            throw new IllegalArgumentException("Delivery " + request.getId() + " is not part of this batch");
+        }
+        return point;
+    }
+
+    /**
+     * @return the straight-line move estimate between two points
+     */
+    public int moves(int from, int to) {
+        if (from < servicePoints || to < servicePoints) {
+            if (from < servicePoints && to < servicePoints) {
+                return compute(from, to);
+            }
+            int s = Math.min(from, to);
+            int d = Math.max(from, to) - servicePoints;
+            return servicePointMoves[s * deliveries + d];
+        }
+        if (deliveryMoves == null) {
+            return compute(from, to);
+        }
+        int slot = (from - servicePoints) * deliveries + (to - servicePoints);
+        int known = deliveryMoves[slot];
+        if (known == 0) {
+            known = compute(from, to) + 1;
+            deliveryMoves[slot] = known;
+        }
+        return known - 1;
+    }
+
+    // same arithmetic as PositionService.distance, so counts match the per-call estimates bit for bit
+    private int compute(int from, int to) {
+        double dx = lngs[from] - lngs[to];
+        double dy = lats[from] - lats[to];
+        return (int) Math.ceil(Math.sqrt(dx * dx + dy * dy) / step);
+    }
+}
@@ -0,0 +1,124 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Future;
+
+/**
+ * One asynchronous calcDeliveryPath run. Date partitions are recorded as they finish, so a
+ * partial plan is available while the job is still running and after it is cancelled.
+ */
+public class PlanningJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id;
+    private final Instant submittedAt;
+    private final int totalDates;
+    private final ConcurrentSkipListMap<LocalDate, DeliveryPlan> completedDates = new ConcurrentSkipListMap<>();
+
+    private List<MedDispatchRec> requests;
+    private volatile Status status = Status.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile DeliveryPlan result;
+    private volatile String error;
+    private Future<?> future;
+
+    public PlanningJob(String id, List<MedDispatchRec> requests) {
+        this.id = id;
+        this.submittedAt = Instant.now();
+        this.requests = requests;
+        this.totalDates = (int) requests.stream().map(MedDispatchRec::getDate).distinct().count();
+    }
+
+    public String getId() { return id; }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public int getTotalDates() { return totalDates; }
+    public int getCompletedDates() { return completedDates.size(); }
+    public Status getStatus() { return status; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+    public boolean isCancelRequested() { return cancelRequested; }
+
+    public boolean isFinished() {
+        Status s = status;
+        return s == Status.COMPLETED || s == Status.FAILED || s == Status.CANCELLED;
+    }
+
+    /**
+     * The full plan once completed, otherwise the dates finished so far merged in date order.
+     */
+    public DeliveryPlan currentPlan() {
+        DeliveryPlan complete = result;
+        return complete != null ? complete : DeliveryPlan.merge(new ArrayList<>(completedDates.values()));
+    }
+
+    public synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * Hands the requests to the worker exactly once; null if the job was cancelled while queued.
+     */
+    public synchronized List<MedDispatchRec> start() {
+        if (status != Status.QUEUED) {
+            return null;
+        }
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+        List<MedDispatchRec> batch = requests;
+        requests = null;
+        return batch;
+    }
+
+    public void dateCompleted(LocalDate date, DeliveryPlan datePlan) {
+        completedDates.put(date, datePlan);
+    }
+
+    public synchronized void complete(DeliveryPlan plan) {
+        result = plan;
+        finish(Status.COMPLETED);
+    }
+
+    public synchronized void fail(String message) {
+        error = message;
+        finish(Status.FAILED);
+    }
+
+    /**
+     * Queued jobs are cancelled at once; running ones stop at the planner's next cancellation check.
+     * @return false if the job had already finished
+     */
+    public synchronized boolean cancel() {
+        if (isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        if (status == Status.QUEUED) {
+            requests = null;
+            if (future != null) {
+                future.cancel(false);
+            }
+            finish(Status.CANCELLED);
+        }
+        return true;
+    }
+
+    public synchronized void cancelled() {
+        finish(Status.CANCELLED);
+    }
+
+    private void finish(Status finalStatus) {
+        if (!isFinished()) {
+            status = finalStatus;
+            finishedAt = Instant.now();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.*;
+import ilpREST.ilp_submission_1.pathfinding.RestrictedZoneIndex;
+import java.util.*;
+
+/**
+ * Immutable snapshot of the ILP reference data (drones, service points and restricted areas).
+ * Every derived lookup structure is built once here so that services can share it between requests.
+ */
+public final class ReferenceData {
+    private final long version;
+    private final List<Drone> drones;
+    private final Map<String, Drone> dronesById;
+    private final List<ServicePointInfo> servicePointInfos;
+    private final List<ServicePointLocation> servicePointLocations;
+    private final List<RestrictedArea> restrictedAreas;
+    private final Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> droneAvailability;
+    private final AvailabilityIndex availabilityIndex;
+    private final FleetIndex fleetIndex;
+    private final DroneQueryIndex queryIndex;
+    private final Map<Long, Position> servicePointPositions;
+    private final List<RequestRegion.Region> forbiddenRegions;
+    private final RestrictedZoneIndex zoneIndex;
+
+    public ReferenceData(long version,
+                         List<Drone> drones,
+                         List<ServicePointInfo> servicePointInfos,
+                         List<ServicePointLocation> servicePointLocations,
+                         List<RestrictedArea> restrictedAreas) {
+        this.version = version;
+        this.drones = List.copyOf(drones);
+        this.servicePointInfos = List.copyOf(servicePointInfos);
+        this.servicePointLocations = List.copyOf(servicePointLocations);
+        this.restrictedAreas = List.copyOf(restrictedAreas);
+
+        Map<String, Drone> byId = new LinkedHashMap<>();
+        for (Drone drone : this.drones) {
+            byId.putIfAbsent(drone.getId(), drone);
+        }
+        this.dronesById = Collections.unmodifiableMap(byId);
+        this.droneAvailability = buildDroneAvailability(this.servicePointInfos);
+        this.availabilityIndex = AvailabilityIndex.compile(this.servicePointInfos);
+        this.fleetIndex = FleetIndex.build(this.drones, this.availabilityIndex);
+        this.queryIndex = DroneQueryIndex.build(this.drones);
+        this.servicePointPositions = buildServicePointPositions(this.servicePointLocations);
+        this.forbiddenRegions = buildForbiddenRegions(this.restrictedAreas);
+        this.zoneIndex = RestrictedZoneIndex.compile(this.forbiddenRegions);
+    }
+
+    private static Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> buildDroneAvailability(
+            List<ServicePointInfo> spInfos) {
+        Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> map = new HashMap<>();
+        for (ServicePointInfo spi : spInfos) {
+            if (spi.getDrones() == null) {
+                continue;
+            }
+            long spId = spi.getServicePointId();
+            for (ServicePointInfo.ServicePointDrone spd : spi.getDrones()) {
+                Map<Long, List<ServicePointInfo.AvailabilityInfo>> spMap =
+                        map.computeIfAbsent(spd.getId(), k -> new HashMap<>());
+                List<ServicePointInfo.AvailabilityInfo> windows = spd.getAvailability() == null
+                        ? List.of()
+                        : List.copyOf(spd.getAvailability());
+                spMap.put(spId, windows);
+            }
+        }
+        Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> frozen = new HashMap<>();
+        map.forEach((droneId, spMap) -> frozen.put(droneId, Collections.unmodifiableMap(spMap)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    private static Map<Long, Position> buildServicePointPositions(List<ServicePointLocation> sps) {
+        Map<Long, Position> map = new HashMap<>();
+        for (ServicePointLocation sp : sps) {
+            map.put(sp.getId(), sp.getLocation());
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static List<RequestRegion.Region> buildForbiddenRegions(List<RestrictedArea> areas) {
+        List<RequestRegion.Region> regions = new ArrayList<>();
+        for (RestrictedArea area : areas) {
+            RequestRegion.Region region = new RequestRegion.Region();
+            region.setName(area.getName());
+            region.setVertices(area.getVertices());
+            regions.add(region);
+        }
+        return Collections.unmodifiableList(regions);
+    }
+
+    public long getVersion() { return version; }
+    public List<Drone> getDrones() { return drones; }
+    public Optional<Drone> getDrone(String id) { return Optional.ofNullable(dronesById.get(id)); }
+    public List<ServicePointInfo> getServicePointInfos() { return servicePointInfos; }
+    public List<ServicePointLocation> getServicePointLocations() { return servicePointLocations; }
+    public List<RestrictedArea> getRestrictedAreas() { return restrictedAreas; }
+    public Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> getDroneAvailability() { return droneAvailability; }
+    public AvailabilityIndex getAvailabilityIndex() { return availabilityIndex; }
+    public FleetIndex getFleetIndex() { return fleetIndex; }
+    public DroneQueryIndex getQueryIndex() { return queryIndex; }
+    public Map<Long, Position> getServicePointPositions() { return servicePointPositions; }
+    public List<RequestRegion.Region> getForbiddenRegions() { return forbiddenRegions; }
+    public RestrictedZoneIndex getZoneIndex() { return zoneIndex; }
+}
@@ -0,0 +1,58 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import ilpREST.ilp_submission_1.dto.Position;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable flight path held as interleaved lng/lat doubles, the planner's internal form of a
+ * {@code List<Position>}: 16 bytes per waypoint instead of a Position plus two boxed Doubles.
+ * {@link #toPositions()} is the only place waypoints become {@link Position}s.
+ */
+public final class CoordinatePath {
+    private final double[] coords;
+
+    /**
+     * Wraps (does not copy) an interleaved lng/lat array; callers must not modify it afterwards.
+     */
+    public CoordinatePath(double[] coords) {
+        if ((coords.length & 1) != 0) {
+            throw new IllegalArgumentException("odd coordinate count");
+        }
+        this.coords = coords;
+    }
+
+    public int size() {
+        return coords.length / 2;
+    }
+
+    public double lng(int i) {
+        return coords[2 * i];
+    }
+
+    public double lat(int i) {
+        return coords[2 * i + 1];
+    }
+
+    /**
+     * Read-only {@code List<Position>} view for the REST response. Positions are created on
+     * access, so a path costs no Position objects until it is serialised.
+     */
+    public List<Position> toPositions() {
+        return new PositionView();
+    }
+
+    private final class PositionView extends AbstractList<Position> implements RandomAccess {
+        @Override
+        public Position get(int index) {
+            return new Position(lng(index), lat(index));
+        }
+
+        @Override
+        public int size() {
+            return CoordinatePath.this.size();
+        }
+    }
+}
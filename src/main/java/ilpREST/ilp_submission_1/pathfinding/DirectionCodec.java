@@ -0,0 +1,163 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Compact, lossless text encoding of a flight path as a start point plus one code per move.
+ * <p>
+ * Moves are written as runs {@code [count]symbol}, the count omitted when it is 1:
+ * {@code a}..{@code p} is one step in compass direction 0..15 (east, then anticlockwise),
+ * {@code .} is a hover (the waypoint repeats) and {@code *} is any other move, whose target is
+ * taken from the next entry of a separate list of jump points. So {@code "12c.*"} is twelve
+ * steps at 45 degrees, a hover, then a jump (e.g. the final snap onto a delivery point).
+ * <p>
+ * A move is only coded as a step when adding the {@link StepTable} delta reproduces the next
+ * waypoint bit for bit, so replaying the codes from the start gives back exactly the same doubles.
+ */
+public final class DirectionCodec {
+    public static final int HOVER = -1;
+    public static final int JUMP = -2;
+
+    private static final char HOVER_SYMBOL = '.';
+    private static final char JUMP_SYMBOL = '*';
+
+    private final StepTable steps;
+
+    public DirectionCodec(StepTable steps) {
+        if (steps.directions() > 26) {
+            throw new IllegalArgumentException("too many directions to code as letters");
+        }
+        this.steps = steps;
+    }
+
+    /**
+     * @return the direction of the move from waypoint i to i + 1, or {@link #HOVER} / {@link #JUMP}
+     */
+    public int moveCode(CoordinatePath path, int i) {
+        double fromLng = path.lng(i), fromLat = path.lat(i);
+        double toLng = path.lng(i + 1), toLat = path.lat(i + 1);
+        if (fromLng == toLng && fromLat == toLat) {
+            return HOVER;
+        }
+        for (int d = 0; d < steps.directions(); d++) {
+            if (fromLng + steps.dLng(d) == toLng && fromLat + steps.dLat(d) == toLat) {
+                return d;
+            }
+        }
+        return JUMP;
+    }
+
+    /**
+     * Encodes the moves of a path (at least one waypoint); the start point and any jump
+     * targets are carried alongside the code string.
+     */
+    public Encoded encode(CoordinatePath path) {
+        StringBuilder moves = new StringBuilder();
+        double[] jumps = new double[8];
+        int jumpValues = 0;
+
+        int moveCount = path.size() - 1;
+        int i = 0;
+        while (i < moveCount) {
+            int code = moveCode(path, i);
+            int run = 1;
+            if (code == JUMP) {
+                jumps = ensureCapacity(jumps, jumpValues + 2);
+                jumps[jumpValues++] = path.lng(i + 1);
+                jumps[jumpValues++] = path.lat(i + 1);
+            }
+            while (i + run < moveCount && moveCode(path, i + run) == code) {
+                if (code == JUMP) {
+                    jumps = ensureCapacity(jumps, jumpValues + 2);
+                    jumps[jumpValues++] = path.lng(i + run + 1);
+                    jumps[jumpValues++] = path.lat(i + run + 1);
+                }
+                run++;
+            }
+            if (run > 1) {
+                moves.append(run);
+            }
+            moves.append(symbol(code));
+            i += run;
+        }
+
+        return new Encoded(path.lng(0), path.lat(0), moves.toString(), Arrays.copyOf(jumps, jumpValues));
+    }
+
+    public CoordinatePath decode(Encoded encoded) {
+        String moves = encoded.getMoves();
+        double[] jumps = encoded.getJumps();
+        double[] coords = new double[8];
+        coords[0] = encoded.getStartLng();
+        coords[1] = encoded.getStartLat();
+        int values = 2;
+        int jump = 0;
+
+        int pos = 0;
+        while (pos < moves.length()) {
+            int run = 0;
+            while (Character.isDigit(moves.charAt(pos))) {
+                run = run * 10 + (moves.charAt(pos++) - '0');
+                if (pos == moves.length()) {
+                    throw new IllegalArgumentException("Move count without a symbol");
+                }
+            }
+            run = Math.max(run, 1);
+            char symbol = moves.charAt(pos++);
+
+            for (int r = 0; r < run; r++) {
+                coords = ensureCapacity(coords, values + 2);
+                double lng = coords[values - 2];
+                double lat = coords[values - 1];
+                if (symbol == HOVER_SYMBOL) {
+                    coords[values] = lng;
+                    coords[values + 1] = lat;
+                } else if (symbol == JUMP_SYMBOL) {
+                    coords[values] = jumps[jump++];
+                    coords[values + 1] = jumps[jump++];
+                } else {
+                    int d = symbol - 'a';
+                    if (d < 0 || d >= steps.directions()) {
+                        throw new IllegalArgumentException("Unknown move symbol '" + symbol + "'");
+                    }
+                    coords[values] = lng + steps.dLng(d);
+                    coords[values + 1] = lat + steps.dLat(d);
+                }
+                values += 2;
+            }
+        }
+        return new CoordinatePath(Arrays.copyOf(coords, values));
+    }
+
+    private static char symbol(int code) {
+        if (code == HOVER) return HOVER_SYMBOL;
+        if (code == JUMP) return JUMP_SYMBOL;
+        return (char) ('a' + code);
+    }
+
+    private static double[] ensureCapacity(double[] values, int needed) {
+        return needed <= values.length ? values : Arrays.copyOf(values, Math.max(needed, values.length * 2));
+    }
+
+    /**
+     * A coded path: start point, move string and jump targets as interleaved lng/lat pairs.
+     */
+    public static final class Encoded {
+        private final double startLng;
+        private final double startLat;
+        private final String moves;
+        private final double[] jumps;
+
+        public Encoded(double startLng, double startLat, String moves, double[] jumps) {
+            this.startLng = startLng;
+            this.startLat = startLat;
+            this.moves = moves;
+            this.jumps = jumps;
+        }
+
+        public double getStartLng() { return startLng; }
+        public double getStartLat() { return startLat; }
+        public String getMoves() { return moves; }
+        public double[] getJumps() { return jumps; }
+    }
+}
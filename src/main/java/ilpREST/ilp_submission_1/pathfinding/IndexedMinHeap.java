@@ -0,0 +1,114 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over int ids with double priorities and O(log n) decrease-key.
+ * Each id remembers its heap slot, so re-prioritising never scans the heap.
+ */
+final class IndexedMinHeap {
+    private static final int ABSENT = -1;
+
+    private int[] heap;
+    private double[] priorities;
+    private int[] slots;
+    private int size;
+
+    IndexedMinHeap(int capacity) {
+        heap = new int[Math.max(16, capacity)];
+        priorities = new double[Math.max(16, capacity)];
+        slots = new int[Math.max(16, capacity)];
+        Arrays.fill(slots, ABSENT);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Inserts the id, or moves it up if it is already queued with a higher priority.
+     */
+    void offer(int id, double priority) {
+        ensureId(id);
+        if (slots[id] != ABSENT) {
+            if (priority < priorities[id]) {
+                priorities[id] = priority;
+                siftUp(slots[id]);
+            }
+            return;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        priorities[id] = priority;
+        heap[size] = id;
+        slots[id] = size;
+        siftUp(size++);
+    }
+
+    int poll() {
+        int top = heap[0];
+        slots[top] = ABSENT;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            slots[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void ensureId(int id) {
+        if (id >= slots.length) {
+            int capacity = Math.max(id + 1, slots.length * 2);
+            int old = slots.length;
+            slots = Arrays.copyOf(slots, capacity);
+            Arrays.fill(slots, old, capacity, ABSENT);
+            priorities = Arrays.copyOf(priorities, capacity);
+        }
+    }
+
+    private void siftUp(int slot) {
+        int id = heap[slot];
+        double priority = priorities[id];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parent = heap[parentSlot];
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            heap[slot] = parent;
+            slots[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = id;
+        slots[id] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int id = heap[slot];
+        double priority = priorities[id];
+        int half = size >>> 1;
+        while (slot < half) {
+            int childSlot = 2 * slot + 1;
+            int child = heap[childSlot];
+            int rightSlot = childSlot + 1;
+            if (rightSlot < size && priorities[heap[rightSlot]] < priorities[child]) {
+                childSlot = rightSlot;
+                child = heap[childSlot];
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            heap[slot] = child;
+            slots[child] = slot;
+            slot = childSlot;
+        }
+        heap[slot] = id;
+        slots[id] = slot;
+    }
+}
@@ -0,0 +1,374 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * A* over the compass-direction move lattice with all node state held in primitive arrays.
+ * Nodes are deduplicated by their packed lattice key (coordinates rounded to the step size)
+ * and the open set is an {@link IndexedMinHeap}, so an improved route is a decrease-key
+ * rather than a linear remove and re-insert.
+ * <p>
+ * Searches stop when they have expanded {@code maxExpansions} nodes or, if a time budget is
+ * set, when it runs out, whichever comes first.
+ */
+public final class LatticeAStar {
+
+    /**
+     * Decides whether the drone may make a straight move between two points.
+     */
+    @FunctionalInterface
+    public interface StepFilter {
+        boolean allows(double fromLng, double fromLat, double toLng, double toLat);
+    }
+
+    private final double step;
+    private final double closeness;
+    private final StepTable steps;
+    private final int directions;
+    private final int maxExpansions;
+    private final long timeBudgetNanos;
+    // how many lattice cells either way a node within the closeness tolerance can fall in
+    private final int reach;
+
+    public LatticeAStar(double step, double closeness, double angleStep, int maxExpansions) {
+        this(step, closeness, angleStep, maxExpansions, 0);
+    }
+
+    /**
+     * @param timeBudgetNanos wall-clock limit per search, or 0 for none
+     */
+    public LatticeAStar(double step, double closeness, double angleStep, int maxExpansions, long timeBudgetNanos) {
+        this.step = step;
+        this.closeness = closeness;
+        this.steps = new StepTable(step, angleStep);
+        this.directions = steps.directions();
+        this.maxExpansions = maxExpansions;
+        this.timeBudgetNanos = timeBudgetNanos;
+        this.reach = (int) Math.ceil(closeness / step);
+    }
+
+    /**
+     * Searches from start until a node lies within the closeness tolerance of the end.
+     * @return the path (ending exactly on the end point) and search statistics; the path is null on failure
+     */
+    public SearchResult search(double startLng, double startLat,
+                               double endLng, double endLat,
+                               StepFilter filter) {
+        return search(startLng, startLat, endLng, endLat, filter, true);
+    }
+
+    /**
+     * As {@link #search}, but the path stops on the first lattice node within the closeness tolerance
+     * of the end instead of snapping onto it, so every move is a full step.
+     */
+    SearchResult searchNear(double startLng, double startLat,
+                            double endLng, double endLat,
+                            StepFilter filter) {
+        return search(startLng, startLat, endLng, endLat, filter, false);
+    }
+
+    private SearchResult search(double startLng, double startLat,
+                                double endLng, double endLat,
+                                StepFilter filter, boolean snap) {
+        Frontier frontier = new Frontier(startLng, startLat, endLng, endLat, false);
+        Nodes nodes = frontier.nodes;
+        IndexedMinHeap open = frontier.open;
+        long deadline = deadline();
+
+        int iterations = 0;
+        while (!open.isEmpty() && iterations++ < maxExpansions && !expired(iterations, deadline)) {
+            int current = open.poll();
+            double curLng = nodes.lng[current];
+            double curLat = nodes.lat[current];
+
+            // the final snap onto the exact end point is a move too, so it must pass the filter
+            if (distance(curLng, curLat, endLng, endLat) < closeness) {
+                if (!snap) {
+                    return new SearchResult(reconstruct(nodes, current, curLng, curLat), iterations, nodes.size, frontier.stepChecks);
+                }
+                boolean onEnd = curLng == endLng && curLat == endLat;
+                if (!onEnd) {
+                    frontier.stepChecks++;
+                }
+                if (onEnd || filter.allows(curLng, curLat, endLng, endLat)) {
+                    return new SearchResult(reconstruct(nodes, current, endLng, endLat), iterations, nodes.size, frontier.stepChecks);
+                }
+            }
+
+            frontier.expand(current, filter);
+        }
+
+        return new SearchResult(null, iterations, nodes.size, frontier.stepChecks);
+    }
+
+    /**
+     * Meet-in-the-middle variant of {@link #search}: one frontier grows from the start towards the
+     * end and another from the end towards the start, always expanding the smaller open set, and the
+     * search stops at the first pair of nodes lying within the closeness tolerance of each other.
+     * The two lattices are offset from each other, so the end frontier's moves are replayed
+     * (reversed) from the meeting node of the start frontier, which ends within the tolerance of
+     * the end point before the usual final snap; every replayed move is checked against the filter.
+     * <p>
+     * Each frontier only has to cover about half the distance, so long legs need far fewer
+     * expansions, but the first meeting is not guaranteed to give the shortest path. Lattices with
+     * an odd number of directions have no reverse moves and fall back to {@link #search}.
+     * @return as {@link #search}; iterations and nodes count both frontiers
+     */
+    public SearchResult searchBidirectional(double startLng, double startLat,
+                                            double endLng, double endLat,
+                                            StepFilter filter) {
+        if (directions % 2 != 0) {
+            return search(startLng, startLat, endLng, endLat, filter);
+        }
+        Frontier forward = new Frontier(startLng, startLat, endLng, endLat, false);
+        Frontier backward = new Frontier(endLng, endLat, startLng, startLat, true);
+        long deadline = deadline();
+
+        int iterations = 0;
+        while (!forward.open.isEmpty() && !backward.open.isEmpty()
+                && iterations++ < maxExpansions && !expired(iterations, deadline)) {
+            boolean forwardTurn = forward.open.size() <= backward.open.size();
+            Frontier side = forwardTurn ? forward : backward;
+            Frontier other = forwardTurn ? backward : forward;
+
+            int current = side.open.poll();
+            double curLng = side.nodes.lng[current];
+            double curLat = side.nodes.lat[current];
+
+            // look for nodes of the other frontier within the tolerance, in the cells around this one
+            long curLngKey = Math.round(curLng / step);
+            long curLatKey = Math.round(curLat / step);
+            for (long dx = -reach; dx <= reach; dx++) {
+                for (long dy = -reach; dy <= reach; dy++) {
+                    int match = other.index.get(key(curLngKey + dx, curLatKey + dy));
+                    if (match == LongIntHashMap.MISSING
+                            || distance(curLng, curLat, other.nodes.lng[match], other.nodes.lat[match]) >= closeness) {
+                        continue;
+                    }
+                    double[] path = forwardTurn
+                            ? join(forward, current, backward, match, endLng, endLat, filter)
+                            : join(forward, match, backward, current, endLng, endLat, filter);
+                    if (path != null) {
+                        return new SearchResult(path, iterations, forward.nodes.size + backward.nodes.size,
+                                forward.stepChecks + backward.stepChecks);
+                    }
+                }
+            }
+
+            side.expand(current, filter);
+        }
+
+        return new SearchResult(null, iterations, forward.nodes.size + backward.nodes.size,
+                forward.stepChecks + backward.stepChecks);
+    }
+
+    /**
+     * The start frontier's route to node f, then the end frontier's moves from node b back to the end
+     * replayed from f, then the snap onto the end point; null if a replayed move or the snap is blocked.
+     */
+    private double[] join(Frontier forward, int f, Frontier backward, int b,
+                          double endLng, double endLat, StepFilter filter) {
+        Nodes fNodes = forward.nodes;
+        Nodes bNodes = backward.nodes;
+        int head = 0;
+        for (int n = f; n != -1; n = fNodes.parent[n]) {
+            head++;
+        }
+        int tail = 0;
+        for (int n = b; bNodes.parent[n] != -1; n = bNodes.parent[n]) {
+            tail++;
+        }
+        double[] coords = new double[(head + tail + 1) * 2];
+
+        int i = head - 1;
+        for (int n = f; n != -1; n = fNodes.parent[n], i--) {
+            coords[2 * i] = fNodes.lng[n];
+            coords[2 * i + 1] = fNodes.lat[n];
+        }
+
+        double lng = fNodes.lng[f];
+        double lat = fNodes.lat[f];
+        int size = head;
+        for (int n = b; bNodes.parent[n] != -1; n = bNodes.parent[n]) {
+            int reverse = (bNodes.direction[n] + directions / 2) % directions;
+            double nLng = lng + steps.dLng(reverse);
+            double nLat = lat + steps.dLat(reverse);
+            forward.stepChecks++;
+            if (!filter.allows(lng, lat, nLng, nLat)) {
+                return null;
+            }
+            coords[2 * size] = nLng;
+            coords[2 * size + 1] = nLat;
+            size++;
+            lng = nLng;
+            lat = nLat;
+        }
+
+        if (distance(lng, lat, endLng, endLat) >= closeness) {
+            return null;
+        }
+        if (lng == endLng && lat == endLat) {
+            return Arrays.copyOf(coords, size * 2);
+        }
+        forward.stepChecks++;
+        if (!filter.allows(lng, lat, endLng, endLat)) {
+            return null;
+        }
+        coords[2 * size] = endLng;
+        coords[2 * size + 1] = endLat;
+        return coords;
+    }
+
+    private long deadline() {
+        return timeBudgetNanos > 0 ? System.nanoTime() + timeBudgetNanos : Long.MAX_VALUE;
+    }
+
+    // the clock is only read every 256 expansions
+    private static boolean expired(int iterations, long deadline) {
+        return deadline != Long.MAX_VALUE && (iterations & 0xFF) == 0 && System.nanoTime() - deadline > 0;
+    }
+
+    /**
+     * One search tree: its nodes, lattice index and open set, growing from a root towards a target.
+     * A reversed frontier grows from the end point, so the drone's move is from a neighbour to the
+     * node being expanded and the filter is asked in that direction.
+     */
+    private final class Frontier {
+        final Nodes nodes = new Nodes(1024);
+        final LongIntHashMap index = new LongIntHashMap(1024);
+        final IndexedMinHeap open = new IndexedMinHeap(1024);
+        final double targetLng;
+        final double targetLat;
+        final boolean reversed;
+        int stepChecks;
+
+        Frontier(double rootLng, double rootLat, double targetLng, double targetLat, boolean reversed) {
+            this.targetLng = targetLng;
+            this.targetLat = targetLat;
+            this.reversed = reversed;
+            int root = nodes.add(rootLng, rootLat, -1, -1, 0.0, distance(rootLng, rootLat, targetLng, targetLat));
+            index.put(key(rootLng, rootLat), root);
+            open.offer(root, nodes.f(root));
+        }
+
+        void expand(int current, StepFilter filter) {
+            double curLng = nodes.lng[current];
+            double curLat = nodes.lat[current];
+            nodes.closed[current] = true;
+
+            for (int d = 0; d < directions; d++) {
+                double nLng = curLng + steps.dLng(d);
+                double nLat = curLat + steps.dLat(d);
+
+                stepChecks++;
+                if (reversed ? !filter.allows(nLng, nLat, curLng, curLat) : !filter.allows(curLng, curLat, nLng, nLat)) {
+                    continue;
+                }
+
+                long nKey = key(nLng, nLat);
+                double tentativeG = nodes.g[current] + step;
+                int neighbour = index.get(nKey);
+
+                if (neighbour == LongIntHashMap.MISSING) {
+                    neighbour = nodes.add(nLng, nLat, current, d, tentativeG, distance(nLng, nLat, targetLng, targetLat));
+                    index.put(nKey, neighbour);
+                    open.offer(neighbour, nodes.f(neighbour));
+                } else if (!nodes.closed[neighbour] && tentativeG < nodes.g[neighbour]) {
+                    // the node moves onto the step from its new parent, which is the move the filter
+                    // just allowed; it is still open, so no child depends on where it was. Should the
+                    // move raise f, the heap keeps the lower priority and the node is just polled sooner
+                    nodes.lng[neighbour] = nLng;
+                    nodes.lat[neighbour] = nLat;
+                    nodes.h[neighbour] = distance(nLng, nLat, targetLng, targetLat);
+                    nodes.g[neighbour] = tentativeG;
+                    nodes.parent[neighbour] = current;
+                    nodes.direction[neighbour] = d;
+                    open.offer(neighbour, nodes.f(neighbour));
+                }
+            }
+        }
+    }
+
+    private static double[] reconstruct(Nodes nodes, int last, double endLng, double endLat) {
+        int length = 0;
+        for (int n = last; n != -1; n = nodes.parent[n]) {
+            length++;
+        }
+        boolean appendEnd = nodes.lng[last] != endLng || nodes.lat[last] != endLat;
+        double[] coords = new double[(length + (appendEnd ? 1 : 0)) * 2];
+
+        int i = length - 1;
+        for (int n = last; n != -1; n = nodes.parent[n], i--) {
+            coords[2 * i] = nodes.lng[n];
+            coords[2 * i + 1] = nodes.lat[n];
+        }
+        if (appendEnd) {
+            coords[coords.length - 2] = endLng;
+            coords[coords.length - 1] = endLat;
+        }
+        return coords;
+    }
+
+    private long key(double lng, double lat) {
+        return key(Math.round(lng / step), Math.round(lat / step));
+    }
+
+    private static long key(long lngKey, long latKey) {
+        return (lngKey << 32) ^ (latKey & 0xFFFFFFFFL);
+    }
+
+    private static double distance(double lng1, double lat1, double lng2, double lat2) {
+        double dx = lng1 - lng2;
+        double dy = lat1 - lat2;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Structure-of-arrays node storage indexed by node id.
+     */
+    private static final class Nodes {
+        double[] lng;
+        double[] lat;
+        double[] g;
+        double[] h;
+        int[] parent;
+        // the move from the parent, as a step table direction
+        int[] direction;
+        boolean[] closed;
+        int size;
+
+        Nodes(int capacity) {
+            lng = new double[capacity];
+            lat = new double[capacity];
+            g = new double[capacity];
+            h = new double[capacity];
+            parent = new int[capacity];
+            direction = new int[capacity];
+            closed = new boolean[capacity];
+        }
+
+        int add(double nodeLng, double nodeLat, int parentId, int move, double gScore, double hScore) {
+            if (size == lng.length) {
+                int capacity = size * 2;
+                lng = Arrays.copyOf(lng, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                g = Arrays.copyOf(g, capacity);
+                h = Arrays.copyOf(h, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                direction = Arrays.copyOf(direction, capacity);
+                closed = Arrays.copyOf(closed, capacity);
+            }
+            lng[size] = nodeLng;
+            lat[size] = nodeLat;
+            g[size] = gScore;
+            h[size] = hScore;
+            parent[size] = parentId;
+            direction[size] = move;
+            return size++;
+        }
+
+        double f(int id) {
+            return g[id] + h[id];
+        }
+    }
+}
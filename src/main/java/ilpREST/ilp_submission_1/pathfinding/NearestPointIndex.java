@@ -0,0 +1,180 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.dto.Position;
+
+import java.util.List;
+
+/**
+ * Static 2-d tree over a fixed set of points with deletion, answering "nearest remaining point" queries.
+ * Distances are the same Euclidean distance {@code PositionService.distance} computes, and exact ties
+ * go to the point with the smaller key, so results match a linear scan over points sorted by key.
+ */
+public final class NearestPointIndex {
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] keys;
+
+    // tree[lo..hi) is a subtree whose root is point tree[(lo + hi) >>> 1], split on x at even depths
+    private final int[] tree;
+    private final int[] slotOf;
+    private final int[] alive;
+    private final boolean[] removed;
+    private int size;
+
+    // per-query scratch
+    private double queryX;
+    private double queryY;
+    private int best;
+    private double bestDistance;
+
+    public NearestPointIndex(double[] xs, double[] ys, int[] keys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.keys = keys;
+        int n = xs.length;
+        this.size = n;
+        this.tree = new int[n];
+        this.slotOf = new int[n];
+        this.alive = new int[n];
+        this.removed = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            tree[i] = i;
+        }
+        build(0, n, 0);
+        for (int slot = 0; slot < n; slot++) {
+            slotOf[tree[slot]] = slot;
+        }
+    }
+
+    /**
+     * Index over the delivery points of the given requests, keyed by request id.
+     * Point i of the index is {@code deliveries.get(i)}.
+     */
+    public static NearestPointIndex ofDeliveries(List<MedDispatchRec> deliveries) {
+        int n = deliveries.size();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            Position pos = deliveries.get(i).getDelivery();
+            xs[i] = pos.getLng();
+            ys[i] = pos.getLat();
+            keys[i] = deliveries.get(i).getId();
+        }
+        return new NearestPointIndex(xs, ys, keys);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return index of the nearest point not yet removed, or -1 if every point has been removed
+     */
+    public int nearest(double x, double y) {
+        queryX = x;
+        queryY = y;
+        best = -1;
+        bestDistance = Double.POSITIVE_INFINITY;
+        search(0, tree.length, 0);
+        return best;
+    }
+
+    public void remove(int index) {
+        if (removed[index]) {
+            return;
+        }
+        removed[index] = true;
+        size--;
+        int target = slotOf[index];
+        int lo = 0, hi = tree.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            alive[mid]--;
+            if (target == mid) {
+                break;
+            } else if (target < mid) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, (depth & 1) == 0);
+        alive[mid] = hi - lo;
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    private void search(int lo, int hi, int depth) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (alive[mid] == 0) {
+            return;
+        }
+        int point = tree[mid];
+        if (!removed[point]) {
+            double dx = queryX - xs[point];
+            double dy = queryY - ys[point];
+            double d = Math.sqrt(dx * dx + dy * dy);
+            if (best < 0 || d < bestDistance || (d == bestDistance && keys[point] < keys[best])) {
+                best = point;
+                bestDistance = d;
+            }
+        }
+
+        boolean splitX = (depth & 1) == 0;
+        double delta = splitX ? queryX - xs[point] : queryY - ys[point];
+        int nearLo = delta < 0 ? lo : mid + 1;
+        int nearHi = delta < 0 ? mid : hi;
+        int farLo = delta < 0 ? mid + 1 : lo;
+        int farHi = delta < 0 ? hi : mid;
+
+        search(nearLo, nearHi, depth + 1);
+        // ties must still be visited so that the smaller key can win
+        if (Math.abs(delta) <= bestDistance) {
+            search(farLo, farHi, depth + 1);
+        }
+    }
+
+    private double coordinate(int point, boolean splitX) {
+        return splitX ? xs[point] : ys[point];
+    }
+
+    /**
+     * Quickselect on tree[left..right] so tree[k] holds the k-th smallest coordinate on the split axis.
+     */
+    private void select(int left, int right, int k, boolean splitX) {
+        while (left < right) {
+            double pivot = coordinate(tree[(left + right) >>> 1], splitX);
+            int i = left, j = right;
+            while (i <= j) {
+                while (coordinate(tree[i], splitX) < pivot) i++;
+                while (coordinate(tree[j], splitX) > pivot) j--;
+                if (i <= j) {
+                    int tmp = tree[i];
+                    tree[i] = tree[j];
+                    tree[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import ilpREST.ilp_submission_1.dto.Position;
+import ilpREST.ilp_submission_1.dto.RequestRegion;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, compiled form of a set of restricted areas.
+ * Polygon vertices live in flat coordinate arrays with a bounding box per polygon, and a uniform grid
+ * over the combined bounds lists which polygons touch each cell, so a point query only ray-casts the
+ * few polygons near it and never allocates.
+ */
+public final class RestrictedZoneIndex {
+
+    private static final int MAX_GRID_CELLS_PER_AXIS = 64;
+
+    public static final RestrictedZoneIndex EMPTY =
+            new RestrictedZoneIndex(new double[0], new double[0], new int[1]);
+
+    // Vertices of polygon p are xs/ys[offsets[p]] .. xs/ys[offsets[p + 1] - 1], closing vertex included
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] offsets;
+
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+
+    private final double gridMinX;
+    private final double gridMinY;
+    private final double gridMaxX;
+    private final double gridMaxY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int columns;
+    private final int rows;
+    // Polygon ids in cell c are cellPolygons[cellStarts[c]] .. cellPolygons[cellStarts[c + 1] - 1]
+    private final int[] cellStarts;
+    private final int[] cellPolygons;
+
+    private final long version;
+
+    private RestrictedZoneIndex(double[] xs, double[] ys, int[] offsets) {
+        this.xs = xs;
+        this.ys = ys;
+        this.offsets = offsets;
+
+        int polygons = offsets.length - 1;
+        minX = new double[polygons];
+        minY = new double[polygons];
+        maxX = new double[polygons];
+        maxY = new double[polygons];
+
+        double allMinX = Double.POSITIVE_INFINITY, allMinY = Double.POSITIVE_INFINITY;
+        double allMaxX = Double.NEGATIVE_INFINITY, allMaxY = Double.NEGATIVE_INFINITY;
+        for (int p = 0; p < polygons; p++) {
+            minX[p] = minY[p] = Double.POSITIVE_INFINITY;
+            maxX[p] = maxY[p] = Double.NEGATIVE_INFINITY;
+            for (int v = offsets[p]; v < offsets[p + 1]; v++) {
+                minX[p] = Math.min(minX[p], xs[v]);
+                minY[p] = Math.min(minY[p], ys[v]);
+                maxX[p] = Math.max(maxX[p], xs[v]);
+                maxY[p] = Math.max(maxY[p], ys[v]);
+            }
+            allMinX = Math.min(allMinX, minX[p]);
+            allMinY = Math.min(allMinY, minY[p]);
+            allMaxX = Math.max(allMaxX, maxX[p]);
+            allMaxY = Math.max(allMaxY, maxY[p]);
+        }
+
+        if (polygons == 0) {
+            gridMinX = gridMinY = 0;
+            gridMaxX = gridMaxY = -1;
+            cellWidth = cellHeight = 1;
+            columns = rows = 0;
+            cellStarts = new int[1];
+            cellPolygons = new int[0];
+        } else {
+            int side = Math.min(MAX_GRID_CELLS_PER_AXIS, Math.max(1, (int) Math.ceil(Math.sqrt(polygons) * 4)));
+            gridMinX = allMinX;
+            gridMinY = allMinY;
+            gridMaxX = allMaxX;
+            gridMaxY = allMaxY;
+            columns = side;
+            rows = side;
+            cellWidth = Math.max((allMaxX - allMinX) / side, Double.MIN_NORMAL);
+            cellHeight = Math.max((allMaxY - allMinY) / side, Double.MIN_NORMAL);
+
+            // Two passes: count entries per cell, then fill a CSR-style array
+            int[] counts = new int[columns * rows + 1];
+            for (int p = 0; p < polygons; p++) {
+                for (int r = row(minY[p]); r <= row(maxY[p]); r++) {
+                    for (int c = column(minX[p]); c <= column(maxX[p]); c++) {
+                        counts[r * columns + c + 1]++;
+                    }
+                }
+            }
+            for (int i = 1; i < counts.length; i++) {
+                counts[i] += counts[i - 1];
+            }
+            cellStarts = counts;
+            cellPolygons = new int[counts[counts.length - 1]];
+            int[] fill = Arrays.copyOf(counts, counts.length - 1);
+            for (int p = 0; p < polygons; p++) {
+                for (int r = row(minY[p]); r <= row(maxY[p]); r++) {
+                    for (int c = column(minX[p]); c <= column(maxX[p]); c++) {
+                        cellPolygons[fill[r * columns + c]++] = p;
+                    }
+                }
+            }
+        }
+
+        long hash = 1125899906842597L;
+        for (int i = 0; i < xs.length; i++) {
+            hash = 31 * hash + Double.doubleToLongBits(xs[i]);
+            hash = 31 * hash + Double.doubleToLongBits(ys[i]);
+        }
+        for (int offset : offsets) {
+            hash = 31 * hash + offset;
+        }
+        this.version = hash;
+    }
+
+    /**
+     * Compiles regions into an index. Polygons are validated with the same rules as
+     * {@code PositionService.isInRegion}: at least four vertices, the last repeating the first.
+     */
+    public static RestrictedZoneIndex compile(List<RequestRegion.Region> regions) {
+        if (regions == null || regions.isEmpty()) {
+            return EMPTY;
+        }
+
+        int total = 0;
+        for (RequestRegion.Region region : regions) {
+            List<Position> vertices = region.getVertices();
+            if (vertices == null || vertices.isEmpty()) {
+                throw new IllegalArgumentException("Null/Empty vertices");
+            } else if (vertices.size() < 4) {
+                throw new IllegalArgumentException("Too few vertices");
+            }
+            Position first = vertices.getFirst();
+            Position last = vertices.getLast();
+            if (!first.getLat().equals(last.getLat()) || !first.getLng().equals(last.getLng())) {
+                throw new IllegalArgumentException("open polygon");
+            }
+            total += vertices.size();
+        }
+
+        double[] xs = new double[total];
+        double[] ys = new double[total];
+        int[] offsets = new int[regions.size() + 1];
+        int v = 0;
+        for (int p = 0; p < regions.size(); p++) {
+            offsets[p] = v;
+            for (Position vertex : regions.get(p).getVertices()) {
+                xs[v] = vertex.getLng();
+                ys[v] = vertex.getLat();
+                v++;
+            }
+        }
+        offsets[regions.size()] = v;
+        return new RestrictedZoneIndex(xs, ys, offsets);
+    }
+
+    /**
+     * Content fingerprint of the compiled polygons. Two indexes over the same vertices share a version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return offsets.length == 1;
+    }
+
+    int polygonCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return index of the first vertex of polygon p
+     */
+    int firstVertex(int p) {
+        return offsets[p];
+    }
+
+    /**
+     * @return index one past the last distinct vertex of polygon p (the closing vertex is excluded)
+     */
+    int endVertex(int p) {
+        return offsets[p + 1] - 1;
+    }
+
+    double vertexLng(int v) {
+        return xs[v];
+    }
+
+    double vertexLat(int v) {
+        return ys[v];
+    }
+
+    /**
+     * True if the point lies inside any restricted polygon (even-odd rule, as in {@code isInRegion}).
+     */
+    public boolean contains(double lng, double lat) {
+        if (lng < gridMinX || lng > gridMaxX || lat < gridMinY || lat > gridMaxY) {
+            return false;
+        }
+        int cell = row(lat) * columns + column(lng);
+        for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+            int p = cellPolygons[i];
+            if (lng < minX[p] || lng > maxX[p] || lat < minY[p] || lat > maxY[p]) {
+                continue;
+            }
+            if (polygonContains(p, lng, lat)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if a straight move from (fromLng, fromLat) to (toLng, toLat) ends inside a zone or crosses
+     * (or touches) any zone edge, so moves that clip a polygon corner are rejected even when both
+     * endpoints are outside it.
+     */
+    public boolean blocksMove(double fromLng, double fromLat, double toLng, double toLat) {
+        double segMinX = Math.min(fromLng, toLng), segMaxX = Math.max(fromLng, toLng);
+        double segMinY = Math.min(fromLat, toLat), segMaxY = Math.max(fromLat, toLat);
+        if (segMaxX < gridMinX || segMinX > gridMaxX || segMaxY < gridMinY || segMinY > gridMaxY) {
+            return false;
+        }
+        int c0 = column(segMinX), c1 = column(segMaxX);
+        int r0 = row(segMinY), r1 = row(segMaxY);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    int p = cellPolygons[i];
+                    if (segMaxX < minX[p] || segMinX > maxX[p] || segMaxY < minY[p] || segMinY > maxY[p]) {
+                        continue;
+                    }
+                    if (polygonContains(p, toLng, toLat) || crossesEdge(p, fromLng, fromLat, toLng, toLat)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True if some zone's bounding box comes within {@code halfWidth} of the segment, i.e. the segment's
+     * corridor of that half-width (taken as the segment swept by a square) touches it. False means no
+     * move that stays within the corridor can come near a zone, without testing a single edge.
+     */
+    public boolean corridorTouchesZone(double fromLng, double fromLat, double toLng, double toLat, double halfWidth) {
+        double boxMinX = Math.min(fromLng, toLng) - halfWidth, boxMaxX = Math.max(fromLng, toLng) + halfWidth;
+        double boxMinY = Math.min(fromLat, toLat) - halfWidth, boxMaxY = Math.max(fromLat, toLat) + halfWidth;
+        if (boxMaxX < gridMinX || boxMinX > gridMaxX || boxMaxY < gridMinY || boxMinY > gridMaxY) {
+            return false;
+        }
+        int c0 = column(boxMinX), c1 = column(boxMaxX);
+        int r0 = row(boxMinY), r1 = row(boxMaxY);
+        int polygons = offsets.length - 1;
+        if ((long) (c1 - c0 + 1) * (r1 - r0 + 1) > polygons) {
+            // a long leg spans more grid cells than there are zones
+            for (int p = 0; p < polygons; p++) {
+                if (segmentTouchesBox(p, fromLng, fromLat, toLng, toLat, halfWidth)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    if (segmentTouchesBox(cellPolygons[i], fromLng, fromLat, toLng, toLat, halfWidth)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // slab test of the segment against polygon p's bounding box grown by margin on every side
+    private boolean segmentTouchesBox(int p, double ax, double ay, double bx, double by, double margin) {
+        double lowX = minX[p] - margin, highX = maxX[p] + margin;
+        double lowY = minY[p] - margin, highY = maxY[p] + margin;
+        double enter = Math.max(Math.max(0, slabEnter(ax, bx - ax, lowX, highX)), slabEnter(ay, by - ay, lowY, highY));
+        double exit = Math.min(Math.min(1, slabExit(ax, bx - ax, lowX, highX)), slabExit(ay, by - ay, lowY, highY));
+        return enter <= exit;
+    }
+
+    // parameter at which origin + t * delta enters [low, high]; -inf if it never leaves, +inf if it never enters
+    private static double slabEnter(double origin, double delta, double low, double high) {
+        if (delta == 0) {
+            return origin >= low && origin <= high ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return Math.min((low - origin) / delta, (high - origin) / delta);
+    }
+
+    private static double slabExit(double origin, double delta, double low, double high) {
+        if (delta == 0) {
+            return origin >= low && origin <= high ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        }
+        return Math.max((low - origin) / delta, (high - origin) / delta);
+    }
+
+    private boolean crossesEdge(int p, double ax, double ay, double bx, double by) {
+        for (int v = offsets[p]; v < offsets[p + 1] - 1; v++) {
+            if (segmentsIntersect(ax, ay, bx, by, xs[v], ys[v], xs[v + 1], ys[v + 1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean segmentsIntersect(double ax, double ay, double bx, double by,
+                                             double cx, double cy, double dx, double dy) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+        // touching / collinear cases
+        return (d1 == 0 && onSegment(cx, cy, dx, dy, ax, ay))
+                || (d2 == 0 && onSegment(cx, cy, dx, dy, bx, by))
+                || (d3 == 0 && onSegment(ax, ay, bx, by, cx, cy))
+                || (d4 == 0 && onSegment(ax, ay, bx, by, dx, dy));
+    }
+
+    private static double cross(double ox, double oy, double ax, double ay, double bx, double by) {
+        return (ax - ox) * (by - oy) - (ay - oy) * (bx - ox);
+    }
+
+    private static boolean onSegment(double ax, double ay, double bx, double by, double px, double py) {
+        return Math.min(ax, bx) <= px && px <= Math.max(ax, bx)
+                && Math.min(ay, by) <= py && py <= Math.max(ay, by);
+    }
+
+    private boolean polygonContains(int p, double lng, double lat) {
+        boolean in = false;
+        int start = offsets[p];
+        int end = offsets[p + 1];
+        int n = end - start;
+        for (int i = 0; i < n; i++) {
+            int a = start + i;
+            int b = start + (i + 1) % n;
+            double x1 = xs[a], y1 = ys[a];
+            double x2 = xs[b], y2 = ys[b];
+            if ((y1 > lat != y2 > lat) && (lng < (x2 - x1) * (lat - y1) / (y2 - y1) + x1)) {
+                in = !in;
+            }
+        }
+        return in;
+    }
+
+    private int column(double x) {
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor((x - gridMinX) / cellWidth)));
+    }
+
+    private int row(double y) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((y - gridMinY) / cellHeight)));
+    }
+}
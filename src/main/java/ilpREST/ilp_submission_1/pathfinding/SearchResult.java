@@ -0,0 +1,26 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+/**
+ * Outcome of one leg search: the path as interleaved lng/lat pairs (null if none was found),
+ * how many nodes were expanded to get there, how many distinct lattice nodes were discovered
+ * and how many moves were checked against the step filter.
+ */
+public final class SearchResult {
+    private final double[] path;
+    private final int iterations;
+    private final int nodes;
+    private final int stepChecks;
+
+    public SearchResult(double[] path, int iterations, int nodes, int stepChecks) {
+        this.path = path;
+        this.iterations = iterations;
+        this.nodes = nodes;
+        this.stepChecks = stepChecks;
+    }
+
+    public boolean isFound() { return path != null; }
+    public double[] getPath() { return path; }
+    public int getIterations() { return iterations; }
+    public int getNodes() { return nodes; }
+    public int getStepChecks() { return stepChecks; }
+}
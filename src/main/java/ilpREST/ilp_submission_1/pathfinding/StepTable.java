@@ -0,0 +1,56 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+/**
+ * Precomputed (dLng, dLat) deltas of one step in each compass direction, so stepping never
+ * evaluates trig or allocates. Direction d is the angle {@code d * angleStep} degrees measured
+ * anticlockwise from east, and each delta is computed exactly as
+ * {@code step * Math.cos(Math.toRadians(d * angleStep))} (resp. sin), so table steps are
+ * bit-identical to the trig ones.
+ */
+public final class StepTable {
+    private final double angleStep;
+    private final double[] dLng;
+    private final double[] dLat;
+
+    public StepTable(double step, double angleStep) {
+        this.angleStep = angleStep;
+        int directions = (int) Math.round(360.0 / angleStep);
+        this.dLng = new double[directions];
+        this.dLat = new double[directions];
+        for (int d = 0; d < directions; d++) {
+            double rad = Math.toRadians(d * angleStep);
+            dLng[d] = step * Math.cos(rad);
+            dLat[d] = step * Math.sin(rad);
+        }
+    }
+
+    public int directions() {
+        return dLng.length;
+    }
+
+    public double dLng(int direction) {
+        return dLng[direction];
+    }
+
+    public double dLat(int direction) {
+        return dLat[direction];
+    }
+
+    /**
+     * @return the table direction for an angle in [0, 360) that is a multiple of the angle step, else -1
+     */
+    public int directionOf(double angle) {
+        if (!(angle >= 0 && angle < 360) || angle % angleStep != 0) {
+            return -1;
+        }
+        return (int) (angle / angleStep);
+    }
+
+    /**
+     * Writes the point one step from (lng, lat) in the given direction into out[offset], out[offset + 1].
+     */
+    public void step(double lng, double lat, int direction, double[] out, int offset) {
+        out[offset] = lng + dLng[direction];
+        out[offset + 1] = lat + dLat[direction];
+    }
+}
@@ -0,0 +1,199 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Visibility graph over the corners of a set of restricted zones, each pushed out from its zone by
+ * a margin so routes between them keep clear of the edges. Two corners are joined when the straight
+ * segment between them crosses no zone. Shortest any-angle routes around the zones run from corner
+ * to corner, so a route query only connects its two endpoints to the corners they can see and runs
+ * A* over the graph; its cost depends on the number of corners, not on the distance travelled.
+ */
+final class VisibilityGraph {
+
+    private final RestrictedZoneIndex zones;
+    private final double[] xs;
+    private final double[] ys;
+    // neighbours of corner i are targets[starts[i]] .. targets[starts[i + 1] - 1]
+    private final int[] starts;
+    private final int[] targets;
+
+    private VisibilityGraph(RestrictedZoneIndex zones, double[] xs, double[] ys) {
+        this.zones = zones;
+        this.xs = xs;
+        this.ys = ys;
+
+        int n = xs.length;
+        boolean[] visible = new boolean[n * n];
+        int edges = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (!zones.blocksMove(xs[i], ys[i], xs[j], ys[j])) {
+                    visible[i * n + j] = visible[j * n + i] = true;
+                    edges += 2;
+                }
+            }
+        }
+        starts = new int[n + 1];
+        targets = new int[edges];
+        int e = 0;
+        for (int i = 0; i < n; i++) {
+            starts[i] = e;
+            for (int j = 0; j < n; j++) {
+                if (visible[i * n + j]) {
+                    targets[e++] = j;
+                }
+            }
+        }
+        starts[n] = e;
+    }
+
+    /**
+     * Builds the graph for the zones, with every corner moved {@code margin} away from both of its
+     * edges. Corners whose moved point is still inside a zone (e.g. where zones overlap) are dropped.
+     */
+    static VisibilityGraph build(RestrictedZoneIndex zones, double margin) {
+        int capacity = 0;
+        for (int p = 0; p < zones.polygonCount(); p++) {
+            capacity += zones.endVertex(p) - zones.firstVertex(p);
+        }
+        double[] xs = new double[capacity];
+        double[] ys = new double[capacity];
+        double[] corner = new double[2];
+        int n = 0;
+        for (int p = 0; p < zones.polygonCount(); p++) {
+            int first = zones.firstVertex(p);
+            int end = zones.endVertex(p);
+            for (int v = first; v < end; v++) {
+                int prev = v == first ? end - 1 : v - 1;
+                int next = v + 1 == end ? first : v + 1;
+                if (inflate(zones, prev, v, next, margin, corner)) {
+                    xs[n] = corner[0];
+                    ys[n] = corner[1];
+                    n++;
+                }
+            }
+        }
+        return new VisibilityGraph(zones, Arrays.copyOf(xs, n), Arrays.copyOf(ys, n));
+    }
+
+    // writes the corner v moved out along the bisector of its edges; false if both sides are restricted
+    private static boolean inflate(RestrictedZoneIndex zones, int prev, int v, int next, double margin, double[] out) {
+        double vx = zones.vertexLng(v), vy = zones.vertexLat(v);
+        double ax = zones.vertexLng(prev) - vx, ay = zones.vertexLat(prev) - vy;
+        double bx = zones.vertexLng(next) - vx, by = zones.vertexLat(next) - vy;
+        double aLength = Math.hypot(ax, ay), bLength = Math.hypot(bx, by);
+        if (aLength == 0 || bLength == 0) {
+            return false;
+        }
+        ax /= aLength; ay /= aLength;
+        bx /= bLength; by /= bLength;
+
+        // away from both edges; for a straight corner, square to them
+        double ux = -(ax + bx), uy = -(ay + by);
+        double uLength = Math.hypot(ux, uy);
+        if (uLength < 1e-9) {
+            ux = -ay;
+            uy = ax;
+            uLength = 1;
+        }
+        ux /= uLength;
+        uy /= uLength;
+        // distance along the bisector that is margin from both edge lines, capped for very sharp corners
+        double halfSine = Math.sqrt(Math.max(0, (1 - (ax * bx + ay * by)) / 2));
+        double distance = margin / Math.max(halfSine, 0.25);
+
+        for (int sign = 1; sign >= -1; sign -= 2) {
+            double x = vx + sign * ux * distance;
+            double y = vy + sign * uy * distance;
+            if (!zones.contains(x, y)) {
+                out[0] = x;
+                out[1] = y;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return xs.length;
+    }
+
+    /**
+     * Shortest route from start to end over the graph.
+     * @return the waypoints as interleaved lng/lat pairs, start and end included, or null if the end
+     *         cannot be reached
+     */
+    double[] route(double startLng, double startLat, double endLng, double endLat) {
+        if (!zones.blocksMove(startLng, startLat, endLng, endLat)) {
+            return new double[]{startLng, startLat, endLng, endLat};
+        }
+
+        // corners 0..n-1, then the start (n) and the end (n + 1)
+        int n = xs.length;
+        int start = n;
+        int end = n + 1;
+        boolean[] seesEnd = new boolean[n];
+        double[] g = new double[n + 2];
+        int[] parent = new int[n + 2];
+        boolean[] closed = new boolean[n + 2];
+        Arrays.fill(g, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        IndexedMinHeap open = new IndexedMinHeap(n + 2);
+
+        for (int i = 0; i < n; i++) {
+            seesEnd[i] = !zones.blocksMove(xs[i], ys[i], endLng, endLat);
+        }
+        g[start] = 0;
+        closed[start] = true;
+        for (int i = 0; i < n; i++) {
+            if (!zones.blocksMove(startLng, startLat, xs[i], ys[i])) {
+                g[i] = Math.hypot(xs[i] - startLng, ys[i] - startLat);
+                parent[i] = start;
+                open.offer(i, g[i] + Math.hypot(xs[i] - endLng, ys[i] - endLat));
+            }
+        }
+
+        while (!open.isEmpty()) {
+            int current = open.poll();
+            if (current == end) {
+                break;
+            }
+            closed[current] = true;
+            double cx = xs[current], cy = ys[current];
+
+            if (seesEnd[current]) {
+                relax(current, end, g[current] + Math.hypot(endLng - cx, endLat - cy), 0, g, parent, closed, open);
+            }
+            for (int e = starts[current]; e < starts[current + 1]; e++) {
+                int next = targets[e];
+                double nextG = g[current] + Math.hypot(xs[next] - cx, ys[next] - cy);
+                relax(current, next, nextG, Math.hypot(xs[next] - endLng, ys[next] - endLat), g, parent, closed, open);
+            }
+        }
+        if (parent[end] == -1) {
+            return null;
+        }
+
+        int length = 0;
+        for (int node = end; node != -1; node = parent[node]) {
+            length++;
+        }
+        double[] waypoints = new double[length * 2];
+        int i = length - 1;
+        for (int node = end; node != -1; node = parent[node], i--) {
+            waypoints[2 * i] = node == start ? startLng : node == end ? endLng : xs[node];
+            waypoints[2 * i + 1] = node == start ? startLat : node == end ? endLat : ys[node];
+        }
+        return waypoints;
+    }
+
+    private static void relax(int from, int to, double toG, double h,
+                              double[] g, int[] parent, boolean[] closed, IndexedMinHeap open) {
+        if (!closed[to] && toG < g[to]) {
+            g[to] = toG;
+            parent[to] = from;
+            open.offer(to, toG + h);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Two-stage leg planner. An any-angle route is found over the {@link VisibilityGraph} of the zones,
+ * then each straight stretch of it is turned into lattice moves by stepping in the compass direction
+ * nearest the bearing to the stretch's far end. Where such a step is blocked, a small
+ * {@link LatticeAStar} search confined to a corridor around the stretch takes over. Work per leg
+ * grows with the number of zone corners and the number of steps, instead of with the area a
+ * lattice search has to flood.
+ * <p>
+ * Graphs are built once per zone version and kept for the most recently built versions. Every leg
+ * looks its graph up, so the lookup takes no lock; only legs arriving while a version is being
+ * built wait for it.
+ */
+public final class VisibilityRouter {
+
+    private static final int CACHED_GRAPHS = 8;
+
+    private final double step;
+    private final double closeness;
+    private final double angleStep;
+    private final StepTable steps;
+    private final double margin;
+    private final double corridor;
+    private final LatticeAStar local;
+
+    private final ConcurrentHashMap<Long, VisibilityGraph> graphs = new ConcurrentHashMap<>();
+    // cached versions in the order their graphs were built
+    private final Queue<Long> built = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param margin how far zone corners are pushed out before routing between them
+     * @param corridor how far a local search may stray from the stretch it is repairing
+     * @param localExpansions expansion budget of each local search
+     */
+    public VisibilityRouter(double step, double closeness, double angleStep,
+                            double margin, double corridor, int localExpansions) {
+        this.step = step;
+        this.closeness = closeness;
+        this.angleStep = angleStep;
+        this.steps = new StepTable(step, angleStep);
+        this.margin = margin;
+        this.corridor = corridor;
+        this.local = new LatticeAStar(step, closeness, angleStep, localExpansions);
+    }
+
+    /**
+     * Plans a leg that avoids the zones.
+     * @return the path (ending exactly on the end point) as {@link LatticeAStar#search} would return it,
+     *         with iterations counting steps walked plus local search expansions and nodes the graph
+     *         size; the path is null if the route could not be turned into legal moves
+     */
+    public SearchResult route(double startLng, double startLat, double endLng, double endLat, RestrictedZoneIndex zones) {
+        VisibilityGraph graph = graph(zones);
+        double[] waypoints = graph.route(startLng, startLat, endLng, endLat);
+        if (waypoints == null) {
+            return new SearchResult(null, 0, graph.size(), 0);
+        }
+
+        LatticeAStar.StepFilter filter = (fromLng, fromLat, toLng, toLat) -> !zones.blocksMove(fromLng, fromLat, toLng, toLat);
+        Walk walk = new Walk(startLng, startLat, filter);
+        boolean walked = true;
+        for (int k = 2; walked && k < waypoints.length; k += 2) {
+            walked = walk.towards(waypoints[k - 2], waypoints[k - 1], waypoints[k], waypoints[k + 1]);
+        }
+        if (walked && (walk.lng != endLng || walk.lat != endLat)) {
+            // the final snap onto the exact end point is a move too, so it must pass the filter
+            walk.stepChecks++;
+            walked = filter.allows(walk.lng, walk.lat, endLng, endLat);
+            if (walked) {
+                walk.append(endLng, endLat);
+            }
+        }
+        return new SearchResult(walked ? walk.path() : null, walk.iterations, graph.size(), walk.stepChecks);
+    }
+
+    VisibilityGraph graph(RestrictedZoneIndex zones) {
+        long version = zones.getVersion();
+        VisibilityGraph graph = graphs.get(version);
+        if (graph != null) {
+            return graph;
+        }
+        boolean[] building = new boolean[1];
+        graph = graphs.computeIfAbsent(version, v -> {
+            building[0] = true;
+            return VisibilityGraph.build(zones, margin);
+        });
+        if (building[0]) {
+            built.add(version);
+            // zone versions change rarely, so the oldest build is almost always the least used
+            while (graphs.size() > CACHED_GRAPHS) {
+                Long eldest = built.poll();
+                if (eldest == null) {
+                    break;
+                }
+                graphs.remove(eldest);
+            }
+        }
+        return graph;
+    }
+
+    private static double distance(double lng1, double lat1, double lng2, double lat2) {
+        double dx = lng1 - lng2;
+        double dy = lat1 - lat2;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // distance from a point to the segment a-b
+    private static double segmentDistance(double x, double y, double ax, double ay, double bx, double by) {
+        double dx = bx - ax, dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, ((x - ax) * dx + (y - ay) * dy) / lengthSquared));
+        return distance(x, y, ax + t * dx, ay + t * dy);
+    }
+
+    /**
+     * The path walked so far, ending at (lng, lat).
+     */
+    private final class Walk {
+        final LatticeAStar.StepFilter filter;
+        double[] coords = new double[256];
+        int size;
+        double lng;
+        double lat;
+        int iterations;
+        int stepChecks;
+
+        Walk(double startLng, double startLat, LatticeAStar.StepFilter filter) {
+            this.filter = filter;
+            append(startLng, startLat);
+        }
+
+        void append(double nextLng, double nextLat) {
+            if (size == coords.length) {
+                coords = Arrays.copyOf(coords, size * 2);
+            }
+            coords[size++] = nextLng;
+            coords[size++] = nextLat;
+            lng = nextLng;
+            lat = nextLat;
+        }
+
+        double[] path() {
+            return Arrays.copyOf(coords, size);
+        }
+
+        /**
+         * Steps from the current point until within the closeness tolerance of the stretch's end.
+         * @return false if neither stepping nor a local search gets there
+         */
+        boolean towards(double fromLng, double fromLat, double toLng, double toLat) {
+            // each step nearest the bearing gets at least ~0.98 of a step closer, so this only trips on a stall
+            int limit = (int) Math.ceil(2 * distance(lng, lat, toLng, toLat) / step) + steps.directions();
+            while (distance(lng, lat, toLng, toLat) >= closeness) {
+                if (limit-- == 0) {
+                    return false;
+                }
+                double bearing = Math.toDegrees(Math.atan2(toLat - lat, toLng - lng));
+                if (bearing < 0) {
+                    bearing += 360;
+                }
+                int d = (int) Math.round(bearing / angleStep) % steps.directions();
+                double nLng = lng + steps.dLng(d);
+                double nLat = lat + steps.dLat(d);
+
+                iterations++;
+                stepChecks++;
+                if (!filter.allows(lng, lat, nLng, nLat)) {
+                    return detour(fromLng, fromLat, toLng, toLat);
+                }
+                append(nLng, nLat);
+            }
+            return true;
+        }
+
+        private boolean detour(double fromLng, double fromLat, double toLng, double toLat) {
+            LatticeAStar.StepFilter confined = (aLng, aLat, bLng, bLat) ->
+                    segmentDistance(bLng, bLat, fromLng, fromLat, toLng, toLat) <= corridor
+                            && filter.allows(aLng, aLat, bLng, bLat);
+            SearchResult result = local.searchNear(lng, lat, toLng, toLat, confined);
+            iterations += result.getIterations();
+            stepChecks += result.getStepChecks();
+            if (!result.isFound()) {
+                return false;
+            }
+            double[] path = result.getPath();
+            for (int i = 2; i < path.length; i += 2) {
+                append(path[i], path[i + 1]);
+            }
+            return true;
+        }
+    }
+}
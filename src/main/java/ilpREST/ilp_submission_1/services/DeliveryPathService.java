@@ -1,57 +1,131 @@
 package ilpREST.ilp_submission_1.services;
 import ilpREST.ilp_submission_1.dto.*;
 import ilpREST.ilp_submission_1.model.*;
+import ilpREST.ilp_submission_1.pathfinding.NearestPointIndex;
+import ilpREST.ilp_submission_1.pathfinding.RestrictedZoneIndex;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.*;
 import java.time.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 public class DeliveryPathService {
-    private final DroneService droneService;
+    private final ReferenceDataService referenceDataService;
     private final AvailabilityService availabilityService;
     private final PositionService positionService;
     private final FlightPathGenerator pathGenerator;
+    private final PlannerMetrics metrics;
 
-    public DeliveryPathService(DroneService droneService,
+    // Bounded pool for evaluating drone x service point candidates concurrently
+    private final ForkJoinPool plannerPool;
+    // false rebuilds every greedy candidate after each assignment, as the sequential planner did
+    private final boolean incrementalRefresh;
+
+    @Autowired
+    public DeliveryPathService(ReferenceDataService referenceDataService,
                                AvailabilityService availabilityService,
                                PositionService positionService,
-                               FlightPathGenerator pathGenerator) {
-        this.droneService = droneService;
+                               FlightPathGenerator pathGenerator,
+                               PlannerMetrics metrics,
+                               @Value("${ilp.planner.parallelism:0}") int parallelism) {
+        this(referenceDataService, availabilityService, positionService, pathGenerator, metrics, parallelism, true);
+    }
+
+    DeliveryPathService(ReferenceDataService referenceDataService,
+                        AvailabilityService availabilityService,
+                        PositionService positionService,
+                        FlightPathGenerator pathGenerator,
+                        PlannerMetrics metrics,
+                        int parallelism,
+                        boolean incrementalRefresh) {
+        this.referenceDataService = referenceDataService;
         this.availabilityService = availabilityService;
         this.positionService = positionService;
         this.pathGenerator = pathGenerator;
+        this.metrics = metrics;
+        this.plannerPool = new ForkJoinPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.incrementalRefresh = incrementalRefresh;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        plannerPool.shutdown();
+    }
+
+    /**
+     * Observes a planning run. Callbacks arrive on planner threads, possibly concurrently.
+     */
+    public interface PlanningListener {
+        PlanningListener NONE = new PlanningListener() {};
+
+        /**
+         * Polled between planning steps; returning true abandons the run with a CancellationException.
+         */
+        default boolean isCancelled() { return false; }
+
+        /**
+         * One date partition is fully planned; its flights will not change.
+         */
+        default void dateCompleted(LocalDate date, DeliveryPlan datePlan) {}
+
+        /**
+         * A flight of the date was finalised; per date, flights arrive in the order the planner
+         * committed to them (greedy flights first, then singular fallback flights).
+         */
+        default void flightAssigned(LocalDate date, AssignedFlight flight) {}
     }
 
     public CalcDeliveryPathResponse calculateDeliveryPath(List<MedDispatchRec> requests) {
+        return planDeliveries(requests).toResponse();
+    }
 
-        // Fetch restricted areas from ILP server
-        List<RestrictedArea> restrictedAreas = availabilityService.getRestrictedAreas();
-        List<RequestRegion.Region> forbiddenRegions = restrictedAreas.stream()
-                .map(area -> {
-                    RequestRegion.Region region = new RequestRegion.Region();
-                    region.setName(area.getName());
-                    region.setVertices(area.getVertices());
-                    return region;
-                })
-                .collect(Collectors.toList());
+    /**
+     * Plans the batch without building the response DTOs, for callers that serialise the
+     * plan themselves (e.g. the streaming endpoint).
+     */
+    public DeliveryPlan planDeliveries(List<MedDispatchRec> requests) {
+        return planDeliveries(requests, PlanningListener.NONE);
+    }
+
+    public DeliveryPlan planDeliveries(List<MedDispatchRec> requests, PlanningListener listener) {
+        long start = System.nanoTime();
+        try {
+            return plan(requests, listener);
+        } finally {
+            metrics.recordPlan(start);
+        }
+    }
+
+    private DeliveryPlan plan(List<MedDispatchRec> requests, PlanningListener listener) {
 
-        // Get ALL drones and build availability/position maps ONCE
-        List<Drone> allDrones = droneService.getAllDrones();
+        // Read one consistent reference data snapshot for the whole request
+        ReferenceData data = referenceDataService.current();
+        RestrictedZoneIndex zones = data.getZoneIndex();
+        FleetIndex fleet = data.getFleetIndex();
         Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> droneAvailabilityMap =
-                availabilityService.buildDroneAvailabilityMap();
-        Map<Long, Position> spPositions = availabilityService.buildServicePointPositionsMap();
+                data.getDroneAvailability();
+        AvailabilityIndex availability = data.getAvailabilityIndex();
+        Map<Long, Position> spPositions = data.getServicePointPositions();
 
-        // Build a map: droneId -> set of request IDs it can potentially handle
-        Map<String, Set<Integer>> droneCapabilityMap = buildDroneCapabilityMap(
-                allDrones, requests, droneAvailabilityMap
-        );
+        // For each drone: the requests it can potentially handle
+        long filterStart = System.nanoTime();
+        BitSet[] droneCapabilityMap = buildDroneCapabilityMap(fleet, requests);
 
         // Filter to only drones that can handle at least one request
-        List<Drone> candidateDrones = allDrones.stream()
-                .filter(d -> droneCapabilityMap.containsKey(d.getId()) &&
-                        !droneCapabilityMap.get(d.getId()).isEmpty())
-                .collect(Collectors.toList());
+        List<Drone> candidateDrones = new ArrayList<>();
+        for (int d = 0; d < fleet.size(); d++) {
+            if (droneCapabilityMap[d] != null) {
+                candidateDrones.add(fleet.drone(d));
+            }
+        }
+        metrics.recordPhase(PlannerMetrics.Phase.CAPABILITY_FILTER, filterStart);
 
         if (candidateDrones.isEmpty()) {
             List<Integer> unassignedIds = requests.stream()
@@ -59,168 +133,322 @@ public class DeliveryPathService {
                     .sorted()
                     .collect(Collectors.toList());
             List<String> warnings = List.of("No drones available to handle any requests");
-            return new CalcDeliveryPathResponse(0.0, 0, new ArrayList<>());
+            return new DeliveryPlan(0.0, 0, new LinkedHashMap<>());
         }
 
         Map<LocalDate, List<MedDispatchRec>> requestsByDate = requests.stream()
                 .collect(Collectors.groupingBy(MedDispatchRec::getDate));
 
+        // Dates share nothing but the read-only snapshot, so each one is planned concurrently.
+        // The parallel stream keeps encounter order, so merging follows the sorted dates.
+        List<LocalDate> dates = requestsByDate.keySet().stream().sorted().collect(Collectors.toList());
+        List<DatePlan> datePlans = plannerPool.submit(() -> dates.parallelStream()
+                .map(date -> {
+                    DatePlan plan = planDate(
+                            date,
+                            requestsByDate.get(date),
+                            candidateDrones,
+                            droneAvailabilityMap,
+                            availability,
+                            spPositions,
+                            zones,
+                            listener
+                    );
+                    listener.dateCompleted(date, buildPlan(plan.flights));
+                    return plan;
+                })
+                .collect(Collectors.toList())
+        ).join();
+
         List<AssignedFlight> allAssignedFlights = new ArrayList<>();
         Set<Integer> assignedDeliveryIds = new HashSet<>();
         List<String> warnings = new ArrayList<>();
 
-        for (LocalDate date : requestsByDate.keySet().stream().sorted().collect(Collectors.toList())){
-            List<MedDispatchRec> dateRequests = requestsByDate.get(date);
-            Set<MedDispatchRec> unassigned = new HashSet<>(dateRequests);
-
-            // Phase 2: Greedy multi-drone assignment
-            while (!unassigned.isEmpty()) {
-                FlightCandidate bestCandidate = null;
-
-                for (Drone drone : candidateDrones) {
-                    String droneId = drone.getId();
-                    Map<Long, List<ServicePointInfo.AvailabilityInfo>> spAvailability =
-                            droneAvailabilityMap.get(droneId);
-
-                    if (spAvailability == null || spAvailability.isEmpty()) {
-                        continue;
-                    }
-
-                    for (Long spId : spAvailability.keySet()) {
-                        Position spPosition = spPositions.get(spId);
-                        if (spPosition == null) {
-                            continue;
-                        }
-
-                        FlightCandidate candidate = buildGreedyFlight(
-                                drone, spId, spPosition,
-                                new ArrayList<>(unassigned),
-                                spAvailability.get(spId),
-                                date,
-                                forbiddenRegions
-                        );
-
-                        if (candidate != null && candidate.getDeliveryCount() > 0) {
-                            if (bestCandidate == null || candidate.compareTo(bestCandidate) < 0) {
-                                bestCandidate = candidate;
-                            }
-                        }
-                    }
-                }
+        for (DatePlan plan : datePlans) {
+            allAssignedFlights.addAll(plan.flights);
+            assignedDeliveryIds.addAll(plan.assignedDeliveryIds);
+            warnings.addAll(plan.warnings);
+        }
 
-                if (bestCandidate == null || bestCandidate.getDeliveryCount() == 0) {
-                    break;
-                }
+        List<Integer> unassignedDeliveryIds = requests.stream()
+                .map(MedDispatchRec::getId)
+                .filter(id -> !assignedDeliveryIds.contains(id))
+                .sorted()
+                .collect(Collectors.toList());
 
-                AssignedFlight assignedFlight = finaliseFlightWithPaths(
-                        bestCandidate,
-                        spPositions.get(bestCandidate.getServicePointId()),
-                        forbiddenRegions
-                );
+        return buildPlan(allAssignedFlights);
+    }
 
-                if (assignedFlight != null) {
-                    allAssignedFlights.add(assignedFlight);
-                    for (MedDispatchRec delivery : bestCandidate.getDeliveries()) {
-                        unassigned.remove(delivery);
-                        assignedDeliveryIds.add(delivery.getId());
-                    }
-                } else {
-                    for (MedDispatchRec delivery : bestCandidate.getDeliveries()) {
-                        unassigned.remove(delivery);
-                        warnings.add("Delivery " + delivery.getId() + " routing failed (no-fly zones)");
-                    }
-                }
+    /**
+     * Greedy multi-drone assignment followed by singular fallback flights for one date partition.
+     */
+    private DatePlan planDate(
+            LocalDate date,
+            List<MedDispatchRec> dateRequests,
+            List<Drone> candidateDrones,
+            Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> droneAvailabilityMap,
+            AvailabilityIndex availability,
+            Map<Long, Position> spPositions,
+            RestrictedZoneIndex zones,
+            PlanningListener listener
+    ){
+        checkCancelled(listener);
+        DatePlan plan = new DatePlan();
+        Set<MedDispatchRec> unassigned = new HashSet<>(dateRequests);
+        MoveMatrix moves = MoveMatrix.build(spPositions, dateRequests, positionService.STEP_CONST);
+
+        // Phase 2: Greedy multi-drone assignment
+        long greedyStart = System.nanoTime();
+        CandidateQueue candidates = new CandidateQueue(
+                buildCandidateSlots(candidateDrones, droneAvailabilityMap, availability, spPositions), date, zones, moves);
+        candidates.refresh(unassigned, null);
+
+        while (!unassigned.isEmpty()) {
+            checkCancelled(listener);
+            FlightCandidate bestCandidate = candidates.best();
+
+            if (bestCandidate == null || bestCandidate.getDeliveryCount() == 0) {
+                break;
             }
 
-            // Phase 3: Fallback singular flights
-            for (MedDispatchRec unassignedReq : new ArrayList<>(unassigned)) {
-                boolean assigned = tryAssignSingularFlight(
-                        unassignedReq,
-                        candidateDrones,
-                        droneAvailabilityMap,
-                        spPositions,
-                        date,
-                        forbiddenRegions,
-                        allAssignedFlights,
-                        warnings
-                );
-
-                if (assigned) {
-                    assignedDeliveryIds.add(unassignedReq.getId());
-                    unassigned.remove(unassignedReq);
+            AssignedFlight assignedFlight = finaliseFlightWithPaths(
+                    bestCandidate,
+                    spPositions.get(bestCandidate.getServicePointId()),
+                    zones
+            );
+
+            if (assignedFlight != null) {
+                plan.flights.add(assignedFlight);
+                listener.flightAssigned(date, assignedFlight);
+                for (MedDispatchRec delivery : bestCandidate.getDeliveries()) {
+                    unassigned.remove(delivery);
+                    plan.assignedDeliveryIds.add(delivery.getId());
+                }
+            } else {
+                for (MedDispatchRec delivery : bestCandidate.getDeliveries()) {
+                    unassigned.remove(delivery);
+                    plan.warnings.add("Delivery " + delivery.getId() + " routing failed (no-fly zones)");
                 }
             }
+
+            candidates.refresh(unassigned, bestCandidate.getDeliveries());
         }
 
-        List<Integer> unassignedDeliveryIds = requests.stream()
-                .map(MedDispatchRec::getId)
-                .filter(id -> !assignedDeliveryIds.contains(id))
-                .sorted()
-                .collect(Collectors.toList());
+        metrics.recordPhase(PlannerMetrics.Phase.GREEDY, greedyStart);
+
+        // Phase 3: Fallback singular flights
+        long fallbackStart = System.nanoTime();
+        for (MedDispatchRec unassignedReq : new ArrayList<>(unassigned)) {
+            checkCancelled(listener);
+            boolean assigned = tryAssignSingularFlight(
+                    unassignedReq,
+                    candidateDrones,
+                    droneAvailabilityMap,
+                    availability,
+                    spPositions,
+                    date,
+                    zones,
+                    moves,
+                    plan.flights,
+                    plan.warnings
+            );
+
+            metrics.recordFallback(assigned);
+            if (assigned) {
+                listener.flightAssigned(date, plan.flights.get(plan.flights.size() - 1));
+                plan.assignedDeliveryIds.add(unassignedReq.getId());
+                unassigned.remove(unassignedReq);
+            }
+        }
+        metrics.recordPhase(PlannerMetrics.Phase.FALLBACK, fallbackStart);
 
-        return buildResponse(allAssignedFlights);
+        return plan;
     }
 
-    private Map<String, Set<Integer>> buildDroneCapabilityMap(
-            List<Drone> allDrones,
-            List<MedDispatchRec> requests,
-            Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> droneAvailabilityMap) {
-
-        Map<String, Set<Integer>> capabilityMap = new HashMap<>();
+    private static void checkCancelled(PlanningListener listener) {
+        if (listener.isCancelled()) {
+            throw new CancellationException("Planning cancelled");
+        }
+    }
 
-        for (Drone drone : allDrones) {
-            String droneId = drone.getId();
-            Set<Integer> capableRequestIds = new HashSet<>();
+    private static class DatePlan {
+        final List<AssignedFlight> flights = new ArrayList<>();
+        final Set<Integer> assignedDeliveryIds = new HashSet<>();
+        final List<String> warnings = new ArrayList<>();
+    }
 
+    private List<CandidateSlot> buildCandidateSlots(
+            List<Drone> candidateDrones,
+            Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> droneAvailabilityMap,
+            AvailabilityIndex availability,
+            Map<Long, Position> spPositions
+    ){
+        List<CandidateSlot> slots = new ArrayList<>();
+        for (Drone drone : candidateDrones) {
             Map<Long, List<ServicePointInfo.AvailabilityInfo>> spAvailability =
-                    droneAvailabilityMap.get(droneId);
+                    droneAvailabilityMap.get(drone.getId());
 
             if (spAvailability == null || spAvailability.isEmpty()) {
                 continue;
             }
 
-            List<ServicePointInfo.AvailabilityInfo> allWindows = spAvailability.values().stream()
-                    .flatMap(List::stream)
-                    .collect(Collectors.toList());
+            for (Long spId : spAvailability.keySet()) {
+                Position spPosition = spPositions.get(spId);
+                if (spPosition != null) {
+                    slots.add(new CandidateSlot(slots.size(), drone, spId,
+                            spPosition.getLng(), spPosition.getLat(), availability.forDrone(drone.getId(), spId)));
+                }
+            }
+        }
+        return slots;
+    }
 
-            for (MedDispatchRec request : requests) {
-                if (!drone.canHandle(
-                        request.getRequirements().getCapacity(),
-                        request.getRequirements().isCooling(),
-                        request.getRequirements().isHeating())) {
-                    continue;
+    /**
+     * Best greedy flight per drone x service point slot, kept ordered so the overall best is the first entry.
+     * After each assignment only the slots whose flight examined one of the removed deliveries are rebuilt:
+     * nearest-neighbour construction never looks past the deliveries it picked (plus the one that ended it
+     * on maxMoves), so removing any other delivery cannot change that slot's flight.
+     * Rebuilds run in parallel on the planner pool; ties fall back to slot order, as the sequential loop did.
+     */
+    private class CandidateQueue {
+        private final List<CandidateSlot> slots;
+        private final LocalDate date;
+        private final RestrictedZoneIndex zones;
+        private final MoveMatrix moves;
+        private final FlightCandidate[] current;
+        private final List<Set<MedDispatchRec>> examined;
+        private final TreeSet<CandidateSlot> ordered;
+
+        CandidateQueue(List<CandidateSlot> slots, LocalDate date, RestrictedZoneIndex zones, MoveMatrix moves) {
+            this.slots = slots;
+            this.date = date;
+            this.zones = zones;
+            this.moves = moves;
+            this.current = new FlightCandidate[slots.size()];
+            this.examined = new ArrayList<>(Collections.nCopies(slots.size(), Set.of()));
+            this.ordered = new TreeSet<>((a, b) -> {
+                int cmp = current[a.index].compareTo(current[b.index]);
+                return cmp != 0 ? cmp : Integer.compare(a.index, b.index);
+            });
+        }
+
+        FlightCandidate best() {
+            return ordered.isEmpty() ? null : current[ordered.first().index];
+        }
+
+        /**
+         * Rebuilds every slot affected by the removed deliveries (all slots when removed is null,
+         * or on every round when incremental refresh is off).
+         */
+        void refresh(Collection<MedDispatchRec> unassigned, Collection<MedDispatchRec> removed) {
+            List<CandidateSlot> stale = new ArrayList<>();
+            for (CandidateSlot slot : slots) {
+                if (removed == null || !incrementalRefresh || !Collections.disjoint(examined.get(slot.index), removed)) {
+                    stale.add(slot);
                 }
+            }
+            metrics.recordGreedyRound(stale.size());
+            if (stale.isEmpty()) {
+                return;
+            }
 
-                boolean available = allWindows.stream()
-                        .anyMatch(window -> availabilityService.isAvailableAtServicePoint(
-                                List.of(window), request.getDate(), request.getTime()
-                        ));
+            List<MedDispatchRec> available = new ArrayList<>(unassigned);
+            FlightCandidate[] rebuilt = new FlightCandidate[stale.size()];
+            List<Set<MedDispatchRec>> seen = new ArrayList<>(Collections.nCopies(stale.size(), Set.of()));
+            plannerPool.submit(() -> IntStream.range(0, stale.size()).parallel().forEach(i -> {
+                CandidateSlot slot = stale.get(i);
+                Set<MedDispatchRec> slotExamined = new HashSet<>();
+                rebuilt[i] = buildGreedyFlight(
+                        slot.drone, slot.spId, slot.spLng, slot.spLat,
+                        available,
+                        slot.schedule,
+                        date,
+                        zones,
+                        moves,
+                        slotExamined
+                );
+                seen.set(i, slotExamined);
+            })).join();
 
-                if (available) {
-                    capableRequestIds.add(request.getId());
+            for (int i = 0; i < stale.size(); i++) {
+                CandidateSlot slot = stale.get(i);
+                if (current[slot.index] != null) {
+                    ordered.remove(slot);
+                }
+                FlightCandidate candidate = rebuilt[i];
+                current[slot.index] = candidate != null && candidate.getDeliveryCount() > 0 ? candidate : null;
+                examined.set(slot.index, seen.get(i));
+                if (current[slot.index] != null) {
+                    ordered.add(slot);
                 }
             }
+        }
+    }
 
-            if (!capableRequestIds.isEmpty()) {
-                capabilityMap.put(droneId, capableRequestIds);
+    private static class CandidateSlot {
+        final int index;
+        final Drone drone;
+        final Long spId;
+        final double spLng;
+        final double spLat;
+        final AvailabilityIndex.Schedule schedule;
+
+        CandidateSlot(int index, Drone drone, Long spId, double spLng, double spLat,
+                      AvailabilityIndex.Schedule schedule) {
+            this.index = index;
+            this.drone = drone;
+            this.spId = spId;
+            this.spLng = spLng;
+            this.spLat = spLat;
+            this.schedule = schedule;
+        }
+    }
+
+    /**
+     * For each drone of the fleet index, the positions in {@code requests} it can serve (capability and
+     * availability at some service point), or null if it can serve none of them.
+     */
+    private BitSet[] buildDroneCapabilityMap(FleetIndex fleet, List<MedDispatchRec> requests) {
+        BitSet[] servableByDrone = new BitSet[fleet.size()];
+
+        for (int r = 0; r < requests.size(); r++) {
+            MedDispatchRec request = requests.get(r);
+            BitSet drones = fleet.capableDrones(
+                    request.getRequirements().getCapacity(),
+                    request.getRequirements().isCooling(),
+                    request.getRequirements().isHeating(),
+                    request.getDate(),
+                    request.getTime());
+
+            for (int d = drones.nextSetBit(0); d >= 0; d = drones.nextSetBit(d + 1)) {
+                if (servableByDrone[d] == null) {
+                    servableByDrone[d] = new BitSet(requests.size());
+                }
+                servableByDrone[d].set(r);
             }
         }
 
-        return capabilityMap;
+        return servableByDrone;
     }
 
     private FlightCandidate buildGreedyFlight(
             Drone drone,
             Long spId,
-            Position spPosition,
+            double spLng,
+            double spLat,
             List<MedDispatchRec> available,
-            List<ServicePointInfo.AvailabilityInfo> availabilityWindows,
+            AvailabilityIndex.Schedule schedule,
             LocalDate date,
-            List<RequestRegion.Region> forbiddenRegions
+            RestrictedZoneIndex zones,
+            MoveMatrix moves,
+            Set<MedDispatchRec> examined
     ){
         List<MedDispatchRec> flightDeliveries = new ArrayList<>();
         Set<MedDispatchRec> remaining = new HashSet<>(available);
-        Position currentPos = spPosition;
+        double curLng = spLng;
+        double curLat = spLat;
+        int spPoint = moves.servicePoint(spId);
+        int curPoint = spPoint;
         int movesSoFar = 0;
 
         remaining.removeIf(req -> !drone.canHandle(
@@ -229,19 +457,20 @@ public class DeliveryPathService {
                 req.getRequirements().isHeating()
         ));
 
-        remaining.removeIf(req -> !availabilityService.isAvailableAtServicePoint(
-                availabilityWindows, date, req.getTime()
-        ));
+        remaining.removeIf(req -> !schedule.isAvailable(date, req.getTime()));
 
-        while (!remaining.isEmpty() && flightDeliveries.size() < 10) {
-            MedDispatchRec nearest = findNearestDelivery(currentPos, remaining);
-            if (nearest == null) break;
+        List<MedDispatchRec> eligible = new ArrayList<>(remaining);
+        NearestPointIndex nearestIndex = NearestPointIndex.ofDeliveries(eligible);
 
-            double legDist = positionService.distance(currentPos, nearest.getDelivery());
-            int legMoves = (int) Math.ceil(legDist / positionService.STEP_CONST);
+        while (nearestIndex.size() > 0 && flightDeliveries.size() < 10) {
+            int nearestSlot = nearestIndex.nearest(curLng, curLat);
+            if (nearestSlot < 0) break;
+            MedDispatchRec nearest = eligible.get(nearestSlot);
+            examined.add(nearest);
+            int nearestPoint = moves.delivery(nearest);
 
-            double returnDist = positionService.distance(nearest.getDelivery(), spPosition);
-            int returnMoves = (int) Math.ceil(returnDist / positionService.STEP_CONST);
+            int legMoves = moves.moves(curPoint, nearestPoint);
+            int returnMoves = moves.moves(nearestPoint, spPoint);
 
             int tentativeTotalMoves = movesSoFar + legMoves + returnMoves;
 
@@ -250,8 +479,10 @@ public class DeliveryPathService {
             }
 
             flightDeliveries.add(nearest);
-            remaining.remove(nearest);
-            currentPos = nearest.getDelivery();
+            nearestIndex.remove(nearestSlot);
+            curLng = nearest.getDelivery().getLng();
+            curLat = nearest.getDelivery().getLat();
+            curPoint = nearestPoint;
             movesSoFar += legMoves;
         }
 
@@ -259,7 +490,8 @@ public class DeliveryPathService {
             return null;
         }
 
-        int finalMoves = pathGenerator.calculateTotalMoves(spPosition, flightDeliveries);
+        // the same leg-by-leg sum as calculateTotalMoves
+        int finalMoves = movesSoFar + moves.moves(curPoint, spPoint);
         double flightCost = drone.getCapability().getCostInitial() +
                 finalMoves * drone.getCapability().getCostPerMove() +
                 drone.getCapability().getCostFinal();
@@ -275,33 +507,15 @@ public class DeliveryPathService {
         return new FlightCandidate(drone.getId(), spId, flightDeliveries, finalMoves, flightCost);
     }
 
-    private MedDispatchRec findNearestDelivery(Position curr, Set<MedDispatchRec> deliveries){
-        MedDispatchRec nearest = null;
-        double minDist = Double.MAX_VALUE;
-
-        List<MedDispatchRec> sortedCandidates = new ArrayList<>(deliveries);
-        sortedCandidates.sort(Comparator.comparingInt(MedDispatchRec::getId));
-
-        for (MedDispatchRec candidate : sortedCandidates) {
-            double dist = positionService.distance(curr, candidate.getDelivery());
-            if (dist < minDist) {
-                minDist = dist;
-                nearest = candidate;
-            }
-        }
-
-        return nearest;
-    }
-
     private AssignedFlight finaliseFlightWithPaths(
             FlightCandidate candidate,
             Position spPosition,
-            List<RequestRegion.Region> forbiddenRegions
+            RestrictedZoneIndex zones
     ){
-        List<CalcDeliveryPathResponse.DeliveryPath> paths =
-                pathGenerator.generateFlightPath(spPosition, candidate.getDeliveries(), forbiddenRegions);
+        List<FlightLeg> legs = pathGenerator.planFlight(
+                spPosition.getLng(), spPosition.getLat(), candidate.getDeliveries(), zones);
 
-        if (paths == null) {
+        if (legs == null) {
             return null;
         }
 
@@ -309,7 +523,7 @@ public class DeliveryPathService {
                 candidate.getDroneId(),
                 candidate.getServicePointId(),
                 candidate.getDeliveries(),
-                paths,
+                legs,
                 candidate.getTotalMoves(),
                 candidate.getFlightCost()
         );
@@ -319,12 +533,15 @@ public class DeliveryPathService {
             MedDispatchRec request,
             List<Drone> candidateDrones,
             Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> droneAvailabilityMap,
+            AvailabilityIndex availability,
             Map<Long, Position> spPositions,
             LocalDate date,
-            List<RequestRegion.Region> forbiddenRegions,
+            RestrictedZoneIndex zones,
+            MoveMatrix moveMatrix,
             List<AssignedFlight> assignedFlights,
             List<String> warnings
     ) {
+        int requestPoint = moveMatrix.delivery(request);
         List<Drone> sortedDrones = new ArrayList<>(candidateDrones);
         sortedDrones.sort(Comparator.comparing(Drone::getId));
 
@@ -348,12 +565,12 @@ public class DeliveryPathService {
                 Position spPosition = spPositions.get(spId);
                 if (spPosition == null) continue;
 
-                if (!availabilityService.isAvailableAtServicePoint(
-                        spAvailability.get(spId), date, request.getTime())) {
+                if (!availability.forDrone(drone.getId(), spId).isAvailable(date, request.getTime())) {
                     continue;
                 }
 
-                int moves = pathGenerator.calculateTotalMoves(spPosition, List.of(request));
+                int spPoint = moveMatrix.servicePoint(spId);
+                int moves = moveMatrix.moves(spPoint, requestPoint) + moveMatrix.moves(requestPoint, spPoint);
 
                 if (moves > drone.getCapability().getMaxMoves()) {
                     continue;
@@ -369,12 +586,12 @@ public class DeliveryPathService {
                     continue;
                 }
 
-                List<CalcDeliveryPathResponse.DeliveryPath> paths =
-                        pathGenerator.generateFlightPath(spPosition, List.of(request), forbiddenRegions);
+                List<FlightLeg> legs = pathGenerator.planFlight(
+                        spPosition.getLng(), spPosition.getLat(), List.of(request), zones);
 
-                if (paths != null) {
+                if (legs != null) {
                     assignedFlights.add(new AssignedFlight(
-                            drone.getId(), spId, List.of(request), paths, moves, flightCost
+                            drone.getId(), spId, List.of(request), legs, moves, flightCost
                     ));
                     return true;
                 }
@@ -385,13 +602,13 @@ public class DeliveryPathService {
         return false;
     }
 
-    private CalcDeliveryPathResponse buildResponse(
+    private DeliveryPlan buildPlan(
             List<AssignedFlight> assignedFlights
     ){
         Map<String, List<AssignedFlight>> flightsByDrone = assignedFlights.stream()
                 .collect(Collectors.groupingBy(AssignedFlight::getDroneId));
 
-        List<CalcDeliveryPathResponse.DronePath> dronePaths = new ArrayList<>();
+        Map<String, List<FlightLeg>> legsByDrone = new LinkedHashMap<>();
         double totalCost = 0.0;
         int totalMoves = 0;
 
@@ -400,17 +617,17 @@ public class DeliveryPathService {
 
         for (String droneId : sortedDroneIds) {
             List<AssignedFlight> flights = flightsByDrone.get(droneId);
-            List<CalcDeliveryPathResponse.DeliveryPath> allDeliveryPaths = new ArrayList<>();
+            List<FlightLeg> allLegs = new ArrayList<>();
 
             for (AssignedFlight flight : flights) {
-                allDeliveryPaths.addAll(flight.getDeliveryPaths());
+                allLegs.addAll(flight.getLegs());
                 totalCost += flight.getFlightCost();
                 totalMoves += flight.getTotalMoves();
             }
 
-            dronePaths.add(new CalcDeliveryPathResponse.DronePath(droneId, allDeliveryPaths));
+            legsByDrone.put(droneId, allLegs);
         }
 
-        return new CalcDeliveryPathResponse(totalCost, totalMoves, dronePaths);
+        return new DeliveryPlan(totalCost, totalMoves, legsByDrone);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package ilpREST.ilp_submission_1.services;
+import ilpREST.ilp_submission_1.model.DeliveryPlan;
+import ilpREST.ilp_submission_1.model.FlightLeg;
+import ilpREST.ilp_submission_1.pathfinding.CoordinatePath;
+import ilpREST.ilp_submission_1.pathfinding.DirectionCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link DeliveryPlan} straight to an output stream in the {@code CalcDeliveryPathResponse}
+ * JSON shape, token by token from the primitive paths. No response DTOs or Positions are built,
+ * and the stream is flushed after every drone so the container never holds the whole body. The plan
+ * itself must be complete: only its serialisation is incremental.
+ * The compact variant replaces each {@code flightPath} with its {@link DirectionCodec} encoding.
+ */
+@Service
+public class DeliveryPlanJsonWriter {
+    public static final String COMPACT_MEDIA_TYPE = "application/vnd.ilp.compact-path+json";
+
+    private final ObjectMapper objectMapper;
+    private final DirectionCodec codec;
+
+    public DeliveryPlanJsonWriter(ObjectMapper objectMapper, PositionService positionService) {
+        this.objectMapper = objectMapper;
+        this.codec = new DirectionCodec(positionService.getSteps());
+    }
+
+    public void write(DeliveryPlan plan, OutputStream out) throws IOException {
+        write(plan, out, false);
+    }
+
+    /**
+     * Same document, but each leg is {@code {"deliveryId", "start": [lng, lat], "moves", "jumps"?}}
+     * instead of a list of positions; {@code jumps} is omitted when the leg has none.
+     */
+    public void writeCompact(DeliveryPlan plan, OutputStream out) throws IOException {
+        write(plan, out, true);
+    }
+
+    private void write(DeliveryPlan plan, OutputStream out, boolean compact) throws IOException {
+        JsonGenerator gen = objectMapper.createGenerator(out);
+        // the servlet container owns the response stream
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (gen) {
+            gen.writeStartObject();
+            gen.writeNumberField("totalCost", plan.getTotalCost());
+            gen.writeNumberField("totalMoves", plan.getTotalMoves());
+            gen.writeArrayFieldStart("dronePaths");
+
+            for (Map.Entry<String, List<FlightLeg>> entry : plan.getLegsByDrone().entrySet()) {
+                gen.writeStartObject();
+                gen.writeStringField("droneId", entry.getKey());
+                gen.writeArrayFieldStart("deliveries");
+                for (FlightLeg leg : entry.getValue()) {
+                    if (compact) {
+                        writeCompactLeg(gen, leg);
+                    } else {
+                        writeLeg(gen, leg);
+                    }
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+                gen.flush();
+            }
+
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeLeg(JsonGenerator gen, FlightLeg leg) throws IOException {
+        gen.writeStartObject();
+        writeDeliveryId(gen, leg);
+        gen.writeArrayFieldStart("flightPath");
+        CoordinatePath path = leg.getPath();
+        for (int i = 0; i < path.size(); i++) {
+            gen.writeStartObject();
+            gen.writeNumberField("lng", path.lng(i));
+            gen.writeNumberField("lat", path.lat(i));
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private void writeCompactLeg(JsonGenerator gen, FlightLeg leg) throws IOException {
+        DirectionCodec.Encoded encoded = codec.encode(leg.getPath());
+        gen.writeStartObject();
+        writeDeliveryId(gen, leg);
+        gen.writeArrayFieldStart("start");
+        gen.writeNumber(encoded.getStartLng());
+        gen.writeNumber(encoded.getStartLat());
+        gen.writeEndArray();
+        gen.writeStringField("moves", encoded.getMoves());
+        double[] jumps = encoded.getJumps();
+        if (jumps.length > 0) {
+            gen.writeArrayFieldStart("jumps");
+            for (int i = 0; i < jumps.length; i += 2) {
+                gen.writeStartArray();
+                gen.writeNumber(jumps[i]);
+                gen.writeNumber(jumps[i + 1]);
+                gen.writeEndArray();
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeDeliveryId(JsonGenerator gen, FlightLeg leg) throws IOException {
+        if (leg.getDeliveryId() == null) {
+            gen.writeNullField("deliveryId");
+        } else {
+            gen.writeNumberField("deliveryId", leg.getDeliveryId());
+        }
+    }
+}
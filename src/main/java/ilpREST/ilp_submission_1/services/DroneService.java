@@ -1,31 +1,43 @@
 package ilpREST.ilp_submission_1.services;
 import ilpREST.ilp_submission_1.dto.*;
-import org.springframework.beans.factory.annotation.Value;
+import ilpREST.ilp_submission_1.model.AvailabilityIndex;
+import ilpREST.ilp_submission_1.model.DroneQuery;
+import ilpREST.ilp_submission_1.model.FleetIndex;
+import ilpREST.ilp_submission_1.model.MoveMatrix;
+import ilpREST.ilp_submission_1.model.ReferenceData;
+import ilpREST.ilp_submission_1.pathfinding.NearestPointIndex;
 import org.springframework.boot.actuate.web.mappings.MappingsEndpoint;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.time.*;
 
 @Service
 public class DroneService {
-    private final String ilpEndpoint;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final ReferenceDataService referenceDataService;
     private final AvailabilityService availabilityService;
     private final PositionService positionService;
 
     final double STEP_CONST = 0.00015;
 
+    // Attribute query results keyed by snapshot version and normalised query, least recently used evicted first
+    private static final int QUERY_CACHE_SIZE = 1024;
+    private final Map<String, List<String>> queryCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > QUERY_CACHE_SIZE;
+        }
+    };
+
 
     public DroneService(
+            ReferenceDataService referenceDataService,
             AvailabilityService availabilityService,
-            PositionService positionService,
-            @Value("${ilp.endpoint}") String ilpEndpoint
+            PositionService positionService
     ) {
+        this.referenceDataService = referenceDataService;
         this.availabilityService = availabilityService;
         this.positionService = positionService;
-        this.ilpEndpoint = ilpEndpoint;
     }
 
 
@@ -34,9 +46,7 @@ public class DroneService {
      * @return List of Drone DTO objects
      */
     public List<Drone> getAllDrones(){
-        Drone[] response = restTemplate.getForObject(ilpEndpoint + "/drones", Drone[].class);
-        if (response == null) return new ArrayList<>();
-        return Arrays.asList(response);
+        return referenceDataService.current().getDrones();
     }
 
     /**
@@ -56,146 +66,137 @@ public class DroneService {
      * @return Optional Drone, Optional empty if not found
      */
     public Optional<Drone> getDroneDetails(String id){
-        for (Drone drone : getAllDrones()){
-            if (drone.getId().equals(id)){
-                return Optional.of(drone);
-            }
-        }
-
-        return Optional.empty();
+        return referenceDataService.current().getDrone(id);
     }
 
 
     public List<String> queryAsPath(String attribute, String value){
-        List<String> res  = new ArrayList<>();
-        for (Drone drone : getAllDrones()){
-            if (_matchSingleAttributeValue(drone, attribute, value)) {
-                res.add(drone.getId());
-            }
-        }
-        return res;
+        return runQuery(DroneQuery.equality(attribute, value));
+    }
+
+    //Handle queries
+    public List<String> query(List<AttributeQuery> queries){
+        return runQuery(DroneQuery.compile(queries));
     }
 
     /**
-     * Helper function to determine if drone capabilities meet string attribute and value
-     * Equality (=) Check
-     * @param drone
-     * @param attr
-     * @param val
-     * @return T/F
+     * Evaluates a compiled query over the current snapshot's column index, reusing the result of an
+     * identical query against the same snapshot version.
      */
-    private boolean _matchSingleAttributeValue(Drone drone, String attr, String val){
-        Drone.Capability cap = drone.getCapability();
-        if (cap == null) return false;
-        switch (attr.toLowerCase().strip()) {
-            case "heating":
-                return Boolean.parseBoolean(val) == cap.isHeating();
-            case "maxmoves":
-                return Double.parseDouble(val) ==  cap.getMaxMoves();
-            case "costpermove":
-                return Double.parseDouble(val) ==  cap.getCostPerMove();
-            case "costinitial":
-                return  Double.parseDouble(val) ==  cap.getCostInitial();
-            case "costfinal":
-                return  Double.parseDouble(val) ==  cap.getCostFinal();
-            case "cooling":
-                return Boolean.parseBoolean(val) == cap.isCooling();
-            case "capacity":
-                return Double.parseDouble(val) == cap.getCapacity();
-            default:
-                return false;
+    private List<String> runQuery(DroneQuery query) {
+        ReferenceData data = referenceDataService.current();
+        String key = data.getVersion() + "|" + query.getKey();
+        List<String> ids;
+        synchronized (queryCache) {
+            ids = queryCache.get(key);
+        }
+        if (ids == null) {
+            ids = Collections.unmodifiableList(query.evaluate(data.getQueryIndex()));
+            synchronized (queryCache) {
+                queryCache.put(key, ids);
+            }
         }
+        return new ArrayList<>(ids);
     }
 
-    //Handle queries
-    public List<String> query(List<AttributeQuery> queries){
-        List<String> res = new  ArrayList<>();
+    //Availability Queries
 
-        for (Drone drone: getAllDrones()){
+    public List<String> queryAvailableDrones(List<MedDispatchRec> requests){
+        if (requests == null || requests.isEmpty()) return new ArrayList<>();
+        validateAvailabilityRequests(requests);
 
-            boolean meetsConditions = true;
+        //Read one consistent reference data snapshot
+        ReferenceData data = referenceDataService.current();
+        Map<Long, Position> spPositions = data.getServicePointPositions();
+        MoveMatrix moves = MoveMatrix.build(spPositions, requests, STEP_CONST);
+        return queryAvailableDrones(requests, data.getFleetIndex(), availabilityCandidates(data), spPositions, moves);
+    }
 
-            for (AttributeQuery q: queries){
-                if (!_handleQuery(drone, q)){
-                    meetsConditions = false;
-                    break;
-                }
-            }
-            if (meetsConditions){
-                res.add(drone.getId());
+    /**
+     * Batch form of {@link #queryAvailableDrones(List)}: every request set is evaluated against one reference
+     * data snapshot, one per-drone availability lookup and one move matrix over all the sets' deliveries,
+     * so N sets cost one snapshot read instead of N.
+     * @param requestSets request sets, each answered independently
+     * @return one list of drone ids per request set, in the same order
+     */
+    public List<List<String>> queryAvailableDronesBatch(List<List<MedDispatchRec>> requestSets){
+        if (requestSets == null || requestSets.isEmpty()) return new ArrayList<>();
+        for (List<MedDispatchRec> requests : requestSets) {
+            if (requests != null) {
+                validateAvailabilityRequests(requests);
             }
         }
 
-        return res;
-    }
-
-    private boolean _handleQuery(Drone d, AttributeQuery q){
-        String attr = q.getAttribute().toLowerCase().strip();
-        String op = q.getOperator().toLowerCase().strip();
-        String val = q.getValue().toLowerCase().strip();
-
-        Drone.Capability cap = d.getCapability();
-        if (cap == null) return false;
-
-        try{
-            switch (attr){
-                case "heating":
-                    return cap.isHeating() == Boolean.parseBoolean(val);
-                case "cooling":
-                    return cap.isCooling() == Boolean.parseBoolean(val);
-                case "maxmoves":
-                    return _compareNumericAttr(cap.getMaxMoves(), op, Double.parseDouble(val));
-                case "costpermove":
-                    return _compareNumericAttr(cap.getCostPerMove(), op, Double.parseDouble(val));
-                case "costinitial":
-                    return _compareNumericAttr(cap.getCostInitial(), op, Double.parseDouble(val));
-                case "costfinal":
-                    return _compareNumericAttr(cap.getCostFinal(), op, Double.parseDouble(val));
-                case "capacity":
-                    return _compareNumericAttr(cap.getCapacity(), op, Double.parseDouble(val));
-                default:
-                    return false;
+        ReferenceData data = referenceDataService.current();
+        List<DroneAvailability> candidates = availabilityCandidates(data);
+        Map<Long, Position> spPositions = data.getServicePointPositions();
+        List<MedDispatchRec> allRequests = new ArrayList<>();
+        for (List<MedDispatchRec> requests : requestSets) {
+            if (requests != null) {
+                allRequests.addAll(requests);
             }
-        } catch (NumberFormatException e) {
-            return false;
         }
-    }
-
-    /**
-     * Helper for numeric comparisons
-     * @param n1 (left operand)
-     * @param op (operator)
-     * @param n2 (right operand)
-     * @return boolean result
-     */
-    private boolean _compareNumericAttr(double n1, String op, double n2){
-        switch (op){
-            case "=":
-                return n1 == n2;
-            case "!=":
-                return n1 != n2;
-            case "<":
-                return n1 < n2;
-            case ">":
-                return n1 > n2;
-            default:
-                return false;
+        MoveMatrix moves = MoveMatrix.build(spPositions, allRequests, STEP_CONST);
+
+        List<List<String>> results = new ArrayList<>(requestSets.size());
+        for (List<MedDispatchRec> requests : requestSets) {
+            if (requests == null || requests.isEmpty()) {
+                results.add(new ArrayList<>());
+            } else {
+                results.add(queryAvailableDrones(requests, data.getFleetIndex(), candidates, spPositions, moves));
+            }
         }
+        return results;
     }
 
-    //Availability Queries
-
-    public List<String> queryAvailableDrones(List<MedDispatchRec> requests){
-        if (requests == null || requests.isEmpty()) return new ArrayList<>();
-
-        //Validate input
+    private static void validateAvailabilityRequests(List<MedDispatchRec> requests) {
         for (MedDispatchRec req : requests) {
             if (req.getDate() == null || req.getTime() == null ||
                     req.getDelivery() == null || req.getRequirements() == null) {
                 throw new IllegalArgumentException("Invalid request: missing required fields");
             }
         }
+    }
+
+    /**
+     * A drone that could serve something at all: it has capabilities and at least one service point.
+     * Its per service point schedules are looked up once, not per request.
+     */
+    private record DroneAvailability(int fleetIndex, Drone drone,
+                                     Map<Long, AvailabilityIndex.Schedule> byServicePoint) {}
 
+    private static List<DroneAvailability> availabilityCandidates(ReferenceData data) {
+        Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> droneAvailability =
+                data.getDroneAvailability();
+        AvailabilityIndex index = data.getAvailabilityIndex();
+        List<DroneAvailability> candidates = new ArrayList<>();
+        List<Drone> drones = data.getDrones();
+        for (int i = 0; i < drones.size(); i++) {
+            Drone drone = drones.get(i);
+            if (drone.getCapability() == null) {
+                continue;
+            }
+            Map<Long, List<ServicePointInfo.AvailabilityInfo>> spAvailability = droneAvailability.get(drone.getId());
+            if (spAvailability == null || spAvailability.isEmpty()) {
+                continue;
+            }
+            // keeps the snapshot's service point order, which decides the bundling fallback order
+            Map<Long, AvailabilityIndex.Schedule> byServicePoint = new LinkedHashMap<>();
+            for (Long spId : spAvailability.keySet()) {
+                byServicePoint.put(spId, index.forDrone(drone.getId(), spId));
+            }
+            candidates.add(new DroneAvailability(i, drone, byServicePoint));
+        }
+        return candidates;
+    }
+
+    private List<String> queryAvailableDrones(
+            List<MedDispatchRec> requests,
+            FleetIndex fleet,
+            List<DroneAvailability> candidates,
+            Map<Long, Position> spPositions,
+            MoveMatrix moves
+    ){
         //Precompute global constraints
         double requiredMaxCapacity = requests.stream()
                 .mapToDouble(r -> r.getRequirements().getCapacity())
@@ -208,11 +209,14 @@ public class DroneService {
         boolean needsHeating = requests.stream()
                 .anyMatch(r -> r.getRequirements().isHeating());
 
-        //Fetch external data
-        List<Drone> allDrones = getAllDrones();
-        Map<String, Map<Long, List<ServicePointInfo.AvailabilityInfo>>> droneAvailability =
-                availabilityService.buildDroneAvailabilityMap();
-        Map<Long, Position> spPositions = availabilityService.buildServicePointPositionsMap();
+        // Capability checks, and every request available at SOME service point, as bitset ANDs over the fleet
+        BitSet eligible = fleet.capableDrones(requiredMaxCapacity, needsCooling, needsHeating);
+        for (MedDispatchRec req : requests) {
+            if (eligible.isEmpty()) {
+                return new ArrayList<>();
+            }
+            eligible.and(fleet.availableDrones(req.getDate(), req.getTime()));
+        }
 
         //Group the Requests by Date
         Map<LocalDate, List<MedDispatchRec>> requestsByDate = new HashMap<>();
@@ -222,28 +226,12 @@ public class DroneService {
 
         List<String> resIds = new ArrayList<>();
 
-        for (Drone drone : allDrones){
-            if (drone.getCapability() == null){
-                continue;
-            }
-            Drone.Capability cap = drone.getCapability();
-            // Capability checks
-            if (cap.getCapacity() < requiredMaxCapacity) continue;
-            if (needsCooling && !cap.isCooling()) continue;
-            if (needsHeating && !cap.isHeating()) continue;
-
-            // Get availability for this drone (map of SP -> windows)
-            Map<Long, List<ServicePointInfo.AvailabilityInfo>> spAvailability =
-                    droneAvailability.get(drone.getId());
-
-            if (spAvailability == null || spAvailability.isEmpty()) continue;
-
-            // Check all requests fall within availability at SOME service point
-            boolean allAvailable = requests.stream().allMatch(req ->
-                    availabilityService.isAvailableAtAnyServicePoint(spAvailability, req.getDate(), req.getTime())
-            );
+        for (DroneAvailability candidate : candidates){
+            if (!eligible.get(candidate.fleetIndex())) continue;
+            Drone drone = candidate.drone();
 
-            if (!allAvailable) continue;
+            // Availability for this drone (map of SP -> schedule)
+            Map<Long, AvailabilityIndex.Schedule> spAvailability = candidate.byServicePoint();
 
             // Get service points for this drone
             Set<Long> droneServicePoints = spAvailability.keySet();
@@ -255,10 +243,10 @@ public class DroneService {
 
                 //Try to bundle requests
                 //TODO: continue here
-                boolean bundlingSucceeded = tryBundling(drone, dateRequests, spAvailability, spPositions);
+                boolean bundlingSucceeded = tryBundling(drone, dateRequests, spAvailability, spPositions, moves);
                 if (!bundlingSucceeded){
                     // Fallback to singular flights
-                    boolean singularSucceeded = trySingularFlights(drone, dateRequests, droneServicePoints, spPositions);
+                    boolean singularSucceeded = trySingularFlights(drone, dateRequests, droneServicePoints, moves);
 
                     if (!singularSucceeded) {
                         droneCanHandleAllDates = false;
@@ -276,66 +264,58 @@ public class DroneService {
     private boolean tryBundling(
             Drone drone,
             List<MedDispatchRec> dateRequests,
-            Map<Long, List<ServicePointInfo.AvailabilityInfo>> spAvailability,
-            Map<Long, Position> spPositions
+            Map<Long, AvailabilityIndex.Schedule> spAvailability,
+            Map<Long, Position> spPositions,
+            MoveMatrix moves
     ){
         // Try each service point where drone is available
-        for (Map.Entry<Long, List<ServicePointInfo.AvailabilityInfo>> entry : spAvailability.entrySet()) {
+        for (Map.Entry<Long, AvailabilityIndex.Schedule> entry : spAvailability.entrySet()) {
             Long spId =  entry.getKey();
-            List<ServicePointInfo.AvailabilityInfo> windows = entry.getValue();
+            AvailabilityIndex.Schedule schedule = entry.getValue();
 
             Position spPos = spPositions.get(spId);
             if (spPos == null) continue;
+            int spPoint = moves.servicePoint(spId);
 
             // Check if ALL requests on this date are available at THIS specific service point
             boolean allAvailableAtThisSP = dateRequests.stream().allMatch(req ->
-                    availabilityService.isAvailableAtServicePoint(windows, req.getDate(), req.getTime())
+                    schedule.isAvailable(req.getDate(), req.getTime())
             );
 
             if (!allAvailableAtThisSP) continue; // Skip this SP if any request isn't available here
 
-            List<MedDispatchRec> remaining = new ArrayList<>(dateRequests);
+            // Nearest-neighbour lookups over the not yet bundled requests (ties go to the lower id)
+            NearestPointIndex remaining = NearestPointIndex.ofDeliveries(dateRequests);
             boolean allCovered = true;
 
-            while (!remaining.isEmpty()) {
+            while (remaining.size() > 0) {
                 //Build greedy flight path
                 List<MedDispatchRec> flight = new ArrayList<>();
                 Position current = spPos;
 
                 //Const for now
-                while (!remaining.isEmpty() && flight.size() < 10) {
+                while (remaining.size() > 0 && flight.size() < 10) {
                     // Find nearest delivery to current position
-                    MedDispatchRec nearest = null;
-                    double minDist = Double.MAX_VALUE;
-
-                    for (MedDispatchRec req : remaining) {
-                        double dist = positionService.distance(current, req.getDelivery());
-                        if (dist < minDist) {
-                            minDist = dist;
-                            nearest = req;
-                        }
-                    }
+                    int nearestSlot = remaining.nearest(current.getLng(), current.getLat());
+                    MedDispatchRec nearest = dateRequests.get(nearestSlot);
 
-                    if (nearest != null) {
-                        flight.add(nearest);
-                        remaining.remove(nearest);
-                        current = nearest.getDelivery();
-                    }
+                    flight.add(nearest);
+                    remaining.remove(nearestSlot);
+                    current = nearest.getDelivery();
                 }
 
                 // Compute route moves: SP -> d1 -> d2 -> ... -> dN -> SP
                 int totalMoves = 0;
-                Position prev = spPos;
+                int prev = spPoint;
 
                 for (MedDispatchRec delivery : flight) {
-                    double dist = positionService.distance(prev, delivery.getDelivery());
-                    totalMoves += (int) Math.ceil(dist / STEP_CONST);
-                    prev = delivery.getDelivery();
+                    int point = moves.delivery(delivery);
+                    totalMoves += moves.moves(prev, point);
+                    prev = point;
                 }
 
                 // Return to SP
-                double returnDist = positionService.distance(prev, spPos);
-                totalMoves += (int) Math.ceil(returnDist / STEP_CONST);
+                totalMoves += moves.moves(prev, spPoint);
 
                 // Check maxMoves
                 if (totalMoves > drone.getCapability().getMaxMoves()) {
@@ -371,31 +351,25 @@ public class DroneService {
 
     private boolean trySingularFlights(
             Drone drone, List<MedDispatchRec> dateRequests,
-            Set<Long> servicePointIds, Map<Long, Position> spPositions
+            Set<Long> servicePointIds, MoveMatrix moveMatrix
     ) {
         for (MedDispatchRec req : dateRequests) {
-            // Find nearest service point for this delivery
-            Long nearestSpId = null;
-            double minDist = Double.MAX_VALUE;
+            // Nearest service point for this delivery; the move estimate only grows with distance,
+            // so the fewest moves pick the nearest point, or one exactly as far in moves
+            int delivery = moveMatrix.delivery(req);
+            int oneWayMoves = Integer.MAX_VALUE;
 
             for (Long spId : servicePointIds) {
-                Position spPos = spPositions.get(spId);
-                if (spPos != null) {
-                    double dist = positionService.distance(spPos, req.getDelivery());
-                    if (dist < minDist) {
-                        minDist = dist;
-                        nearestSpId = spId;
-                    }
+                int spPoint = moveMatrix.servicePoint(spId);
+                if (spPoint >= 0) {
+                    oneWayMoves = Math.min(oneWayMoves, moveMatrix.moves(spPoint, delivery));
                 }
             }
 
-            if (nearestSpId == null) return false;
-
-            Position spPos = spPositions.get(nearestSpId);
+            if (oneWayMoves == Integer.MAX_VALUE) return false;
 
             // Round trip moves
-            double oneWayDist = positionService.distance(spPos, req.getDelivery());
-            int moves = (int) Math.ceil(oneWayDist / STEP_CONST) * 2;
+            int moves = oneWayMoves * 2;
 
             // Check maxMoves
             if (moves > drone.getCapability().getMaxMoves()) {
@@ -1,14 +1,70 @@
 package ilpREST.ilp_submission_1.services;
 import ilpREST.ilp_submission_1.dto.*;
+import ilpREST.ilp_submission_1.model.FlightLeg;
+import ilpREST.ilp_submission_1.pathfinding.CoordinatePath;
+import ilpREST.ilp_submission_1.pathfinding.LatticeAStar;
+import ilpREST.ilp_submission_1.pathfinding.RestrictedZoneIndex;
+import ilpREST.ilp_submission_1.pathfinding.SearchResult;
+import ilpREST.ilp_submission_1.pathfinding.StepTable;
+import ilpREST.ilp_submission_1.pathfinding.VisibilityRouter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class FlightPathGenerator {
+    private static final Logger log = LoggerFactory.getLogger(FlightPathGenerator.class);
+    // half-width of the corridor, in steps, that must be clear of zone bounding boxes to walk a leg straight
+    private static final int DIRECT_CORRIDOR_STEPS = 2;
+
     private final PositionService positionService;
+    private final LatticeAStar aStar;
+    private final boolean bidirectional;
+    // null when legs go straight to the lattice search
+    private final VisibilityRouter router;
+    private final LegPathCache legCache;
+    private final PlannerMetrics metrics;
+
+    public FlightPathGenerator(PositionService positionService, LegPathCache legCache, PlannerMetrics metrics) {
+        this(positionService, legCache, metrics, true, true, 10000, 0);
+    }
 
-    public FlightPathGenerator(PositionService positionService) {
+    /**
+     * @param visibilityGraph route legs over the zones' visibility graph first ({@link VisibilityRouter}),
+     *                        falling back to the lattice search when that fails
+     * @param bidirectional search legs from both ends at once ({@link LatticeAStar#searchBidirectional})
+     * @param maxExpansions nodes a leg search may expand before giving up
+     * @param timeBudgetMs wall-clock limit per leg search, or 0 for none
+     */
+    @Autowired
+    public FlightPathGenerator(PositionService positionService, LegPathCache legCache, PlannerMetrics metrics,
+                               @Value("${ilp.pathfinding.visibility-graph:true}") boolean visibilityGraph,
+                               @Value("${ilp.pathfinding.bidirectional:true}") boolean bidirectional,
+                               @Value("${ilp.pathfinding.max-expansions:10000}") int maxExpansions,
+                               @Value("${ilp.pathfinding.time-budget-ms:0}") long timeBudgetMs) {
         this.positionService = positionService;
+        this.legCache = legCache;
+        this.metrics = metrics;
+        this.bidirectional = bidirectional;
+        this.aStar = new LatticeAStar(
+                positionService.STEP_CONST,
+                positionService.CLOSENESS_CONST,
+                positionService.ANGLE_CONST,
+                maxExpansions,
+                TimeUnit.MILLISECONDS.toNanos(timeBudgetMs)
+        );
+        this.router = !visibilityGraph ? null : new VisibilityRouter(
+                positionService.STEP_CONST,
+                positionService.CLOSENESS_CONST,
+                positionService.ANGLE_CONST,
+                2 * positionService.STEP_CONST,
+                8 * positionService.STEP_CONST,
+                2000
+        );
     }
 
     public List<CalcDeliveryPathResponse.DeliveryPath> generateFlightPath(
@@ -16,206 +72,211 @@ public class FlightPathGenerator {
             List<MedDispatchRec> deliveries,
             List<RequestRegion.Region> forbiddenRegions
     ){
-        List<CalcDeliveryPathResponse.DeliveryPath> result = new ArrayList<>();
-        Position currentPos = servicePoint;
+        return generateFlightPath(servicePoint, deliveries, RestrictedZoneIndex.compile(forbiddenRegions));
+    }
 
-        for (int i = 0; i < deliveries.size(); i++){
-            MedDispatchRec delivery = deliveries.get(i);
-            Position deliveryPos = delivery.getDelivery();
+    /**
+     * Same as the region-list variant, but reuses an already compiled zone index
+     * (e.g. the one held by the current reference data snapshot).
+     */
+    public List<CalcDeliveryPathResponse.DeliveryPath> generateFlightPath(
+            Position servicePoint,
+            List<MedDispatchRec> deliveries,
+            RestrictedZoneIndex zones
+    ){
+        List<FlightLeg> legs = planFlight(servicePoint.getLng(), servicePoint.getLat(), deliveries, zones);
+        if (legs == null) {
+            return null;
+        }
+
+        List<CalcDeliveryPathResponse.DeliveryPath> result = new ArrayList<>(legs.size());
+        for (FlightLeg leg : legs) {
+            result.add(new CalcDeliveryPathResponse.DeliveryPath(leg.getDeliveryId(), leg.getPath().toPositions()));
+        }
+        return result;
+    }
+
+    /**
+     * Plans one leg per delivery plus the return leg to the service point, keeping every path
+     * in primitive form. Returns null if any leg cannot be planned.
+     */
+    public List<FlightLeg> planFlight(
+            double spLng,
+            double spLat,
+            List<MedDispatchRec> deliveries,
+            RestrictedZoneIndex zones
+    ){
+        List<FlightLeg> result = new ArrayList<>(deliveries.size() + 1);
+        double curLng = spLng;
+        double curLat = spLat;
 
-            List<Position> flightPath = new ArrayList<>();
+        for (MedDispatchRec delivery : deliveries){
+            double deliveryLng = delivery.getDelivery().getLng();
+            double deliveryLat = delivery.getDelivery().getLat();
 
-            // Generate leg from current position to delivery
-            List<Position> leg = generateLeg(currentPos, deliveryPos, forbiddenRegions);
+            // Generate leg from current position to delivery (including the delivery position at the end)
+            CoordinatePath leg = generateLeg(curLng, curLat, deliveryLng, deliveryLat, zones);
 
             if (leg == null){
-                System.out.println("Failed to generate leg from " + currentPos + " to " + deliveryPos);
+                log.debug("Failed to generate leg from {} to {}", describe(curLng, curLat), describe(deliveryLng, deliveryLat));
                 return null;
             }
 
-            // Add all positions from leg (including the delivery position at the end)
-            for (Position pos : leg) {
-                flightPath.add(toResponsePosition(pos));
-            }
-
-            // Add the hover at delivery position (duplicate)
-            //flightPath.add(toResponsePosition(deliveryPos));
-
-            result.add(new CalcDeliveryPathResponse.DeliveryPath(delivery.getId(), flightPath));
-            currentPos = deliveryPos;
+            result.add(new FlightLeg(delivery.getId(), leg));
+            curLng = deliveryLng;
+            curLat = deliveryLat;
         }
-//comment
+
         // Generate final return leg from last delivery to service point
-        List<Position> returnLeg = generateLeg(currentPos, servicePoint, forbiddenRegions);
+        CoordinatePath returnLeg = generateLeg(curLng, curLat, spLng, spLat, zones);
         if (returnLeg == null) {
-            System.out.println("Failed to generate final return leg");
+            log.debug("Failed to generate final return leg");
             return null;
         }
-
-        List<Position> returnPath = new ArrayList<>();
-        for (int i = 0; i < returnLeg.size(); i++) {
-            returnPath.add(toResponsePosition(returnLeg.get(i)));
-        }
-        result.add(new CalcDeliveryPathResponse.DeliveryPath(null, returnPath));
+        result.add(new FlightLeg(null, returnLeg));
 
         return result;
     }
 
-    private List<Position> generateLeg(Position start, Position end, List<RequestRegion.Region> forbiddenRegions){
+    private CoordinatePath generateLeg(double startLng, double startLat, double endLng, double endLat, RestrictedZoneIndex zones){
+        long start = System.nanoTime();
         // Check if destination is valid
-        if (!isValidStep(end, forbiddenRegions)) {
-            System.out.println("Destination " + end + " is inside a no-fly zone!");
+        if (zones.contains(endLng, endLat)) {
+            metrics.recordRoutingFailure(PlannerMetrics.RoutingFailure.DESTINATION_RESTRICTED);
+            log.debug("Destination {} is inside a no-fly zone", describe(endLng, endLat));
             return null;
         }
 
+        // Nothing near the straight line: walk it, skipping the search and the leg cache
+        if (!zones.corridorTouchesZone(startLng, startLat, endLng, endLat, DIRECT_CORRIDOR_STEPS * positionService.STEP_CONST)) {
+            double[] coords = directPath(startLng, startLat, endLng, endLat, zones);
+            if (coords != null) {
+                metrics.recordLeg(PlannerMetrics.Route.DIRECT, start);
+                return new CoordinatePath(coords);
+            }
+        }
+
         // Use A* pathfinding
-        return aStarPathfind(start, end, forbiddenRegions);
+        return aStarPathfind(startLng, startLat, endLng, endLat, zones, start);
     }
 
-    private List<Position> aStarPathfind(Position start, Position end, List<RequestRegion.Region> forbiddenRegions) {
-        PriorityQueue<Node> openSet = new PriorityQueue<>(Comparator.comparingDouble(n -> n.fScore));
-        Map<String, Node> allNodes = new HashMap<>();
-
-        Node startNode = new Node(start, null, 0, positionService.distance(start, end));
-        openSet.add(startNode);
-        allNodes.put(positionKey(start), startNode);
-
-        int maxIterations = 10000;
-        int iterations = 0;
-
-        while (!openSet.isEmpty() && iterations++ < maxIterations) {
-            Node current = openSet.poll();
-
-            if (positionService.isCloseTo(current.position, end)) {
-                // Reconstruct path
-                List<Position> path = new ArrayList<>();
-                Node node = current;
-                while (node != null) {
-                    path.add(0, node.position);
-                    node = node.parent;
-                }
+    private CoordinatePath aStarPathfind(double startLng, double startLat, double endLng, double endLat,
+                                         RestrictedZoneIndex zones, long legStart) {
+        double[] coords = legCache.get(startLng, startLat, endLng, endLat, zones.getVersion());
 
-                // Add exact end position if not already there
-                Position lastPos = path.get(path.size() - 1);
-                if (!lastPos.getLng().equals(end.getLng()) || !lastPos.getLat().equals(end.getLat())) {
-                    path.add(end);
-                }
-
-                return path;
+        if (coords == null) {
+            SearchResult result = null;
+            PlannerMetrics.Route route = PlannerMetrics.Route.VISIBILITY;
+            if (router != null) {
+                result = router.route(startLng, startLat, endLng, endLat, zones);
+                metrics.recordSearch(route, result);
             }
-
-            current.closed = true;
-
-            // Explore neighbors
-            for (double angle = 0; angle < 360; angle += positionService.ANGLE_CONST) {
-                Position neighbor = positionService.nextPosition(current.position, angle);
-
-                if (!isValidStep(neighbor, forbiddenRegions)) {
-                    continue;
-                }
-
-                String neighborKey = positionKey(neighbor);
-                double tentativeG = current.gScore + positionService.STEP_CONST;
-
-                Node neighborNode = allNodes.get(neighborKey);
-
-                if (neighborNode == null) {
-                    double h = positionService.distance(neighbor, end);
-                    neighborNode = new Node(neighbor, current, tentativeG, h);
-                    allNodes.put(neighborKey, neighborNode);
-                    openSet.add(neighborNode);
-                } else if (!neighborNode.closed && tentativeG < neighborNode.gScore) {
-                    openSet.remove(neighborNode);
-                    neighborNode.gScore = tentativeG;
-                    neighborNode.fScore = tentativeG + neighborNode.hScore;
-                    neighborNode.parent = current;
-                    openSet.add(neighborNode);
-                }
+            if (result == null || !result.isFound()) {
+                LatticeAStar.StepFilter filter = (fromLng, fromLat, toLng, toLat) -> !zones.blocksMove(fromLng, fromLat, toLng, toLat);
+                route = bidirectional ? PlannerMetrics.Route.BIDIRECTIONAL : PlannerMetrics.Route.FORWARD;
+                result = bidirectional
+                        ? aStar.searchBidirectional(startLng, startLat, endLng, endLat, filter)
+                        : aStar.search(startLng, startLat, endLng, endLat, filter);
+                metrics.recordSearch(route, result);
             }
-        }
 
-        System.out.println("A* pathfinding failed - no path found after " + iterations + " iterations");
-        return null;
-    }
+            if (!result.isFound()) {
+                metrics.recordRoutingFailure(PlannerMetrics.RoutingFailure.NO_PATH);
+                log.debug("A* pathfinding failed - no path found after {} iterations", result.getIterations());
+                return null;
+            }
 
-    private static class Node {
-        Position position;
-        Node parent;
-        double gScore;
-        double hScore;
-        double fScore;
-        boolean closed = false;
-
-        Node(Position position, Node parent, double gScore, double hScore) {
-            this.position = position;
-            this.parent = parent;
-            this.gScore = gScore;
-            this.hScore = hScore;
-            this.fScore = gScore + hScore;
+            metrics.recordLeg(route, legStart);
+            coords = result.getPath();
+            legCache.put(startLng, startLat, endLng, endLat, zones.getVersion(), coords);
         }
-    }
 
-    private String positionKey(Position pos) {
-        long lngKey = Math.round(pos.getLng() / positionService.STEP_CONST);
-        long latKey = Math.round(pos.getLat() / positionService.STEP_CONST);
-        return lngKey + "," + latKey;
+        return new CoordinatePath(coords);
     }
 
-    private Position stepTowards(Position current, Position target, List<RequestRegion.Region> forbiddenRegions){
-        double targetAngle = computeBearing(current, target);
-        double roundedAngle = Math.round(targetAngle / positionService.ANGLE_CONST) * positionService.ANGLE_CONST;
-
-        Position directCandidate = positionService.nextPosition(current, roundedAngle);
-        if (isValidStep(directCandidate, forbiddenRegions)){
-            return directCandidate;
-        }
-
-        List<AngleCandidate> candidates = new ArrayList<>();
-
-        for (double angle = 0; angle < 360; angle += positionService.ANGLE_CONST) {
-            if (angle == roundedAngle) continue;
+    private static String describe(double lng, double lat) {
+        return "lng: " + lng + "lat: " + lat;
+    }
 
-            Position candidate = positionService.nextPosition(current, angle);
-            if (isValidStep(candidate, forbiddenRegions)) {
-                double distToTarget = positionService.distance(candidate, target);
-                candidates.add(new AngleCandidate(angle, candidate, distToTarget));
+    /**
+     * Walks straight at the end point with {@link #stepTowards} and snaps onto it, for legs whose
+     * corridor is clear of every zone. Null if a step or the snap is blocked after all.
+     */
+    private double[] directPath(double startLng, double startLat, double endLng, double endLat, RestrictedZoneIndex zones) {
+        double distance = positionService.distance(startLng, startLat, endLng, endLat);
+        // steps within 11.25 degrees of the bearing get at least ~0.98 of a step closer each
+        int maxMoves = (int) Math.ceil(distance / (positionService.STEP_CONST * 0.98)) + 1;
+        double[] coords = new double[(maxMoves + 2) * 2];
+        coords[0] = startLng;
+        coords[1] = startLat;
+        int size = 2;
+
+        while (positionService.distance(coords[size - 2], coords[size - 1], endLng, endLat) >= positionService.CLOSENESS_CONST) {
+            if (size == coords.length - 2 || !stepTowards(coords[size - 2], coords[size - 1], endLng, endLat, zones, coords, size)) {
+                return null;
             }
+            size += 2;
         }
 
-        if (!candidates.isEmpty()) {
-            candidates.sort(Comparator.comparingDouble(c -> c.distanceToTarget));
-            return candidates.get(0).position;
+        double lastLng = coords[size - 2], lastLat = coords[size - 1];
+        if (lastLng != endLng || lastLat != endLat) {
+            if (zones.blocksMove(lastLng, lastLat, endLng, endLat)) {
+                return null;
+            }
+            coords[size++] = endLng;
+            coords[size++] = endLat;
         }
-
-        return null;
+        return Arrays.copyOf(coords, size);
     }
 
-    private static class AngleCandidate {
-        double angle;
-        Position position;
-        double distanceToTarget;
-
-        AngleCandidate(double angle, Position position, double distanceToTarget) {
-            this.angle = angle;
-            this.position = position;
-            this.distanceToTarget = distanceToTarget;
+    /**
+     * Writes the point one step from the current one towards the target into out[offset], out[offset + 1]:
+     * the step nearest the bearing if it is allowed, else the allowed step that lands closest to the target.
+     * @return false if every step is blocked
+     */
+    private boolean stepTowards(double curLng, double curLat, double targetLng, double targetLat,
+                                RestrictedZoneIndex zones, double[] out, int offset){
+        StepTable steps = positionService.getSteps();
+        int direct = (int) Math.round(computeBearing(curLng, curLat, targetLng, targetLat) / positionService.ANGLE_CONST) % steps.directions();
+
+        double nLng = curLng + steps.dLng(direct);
+        double nLat = curLat + steps.dLat(direct);
+        if (!zones.blocksMove(curLng, curLat, nLng, nLat)){
+            out[offset] = nLng;
+            out[offset + 1] = nLat;
+            return true;
         }
-    }
 
-    private boolean isValidStep(Position candidate, List<RequestRegion.Region> forbiddenRegions){
-        if (forbiddenRegions != null && !forbiddenRegions.isEmpty()){
-            for (RequestRegion.Region region : forbiddenRegions){
-                if (positionService.isInRegion(candidate, region.getVertices())){
-                    return false;
+        // otherwise the valid direction that lands closest to the target, first direction on ties
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int d = 0; d < steps.directions(); d++) {
+            if (d == direct) continue;
+
+            nLng = curLng + steps.dLng(d);
+            nLat = curLat + steps.dLat(d);
+            if (!zones.blocksMove(curLng, curLat, nLng, nLat)) {
+                double dx = nLng - targetLng;
+                double dy = nLat - targetLat;
+                double distToTarget = Math.sqrt(dx * dx + dy * dy);
+                if (distToTarget < bestDistance) {
+                    best = d;
+                    bestDistance = distToTarget;
                 }
             }
         }
-        return true;
+
+        if (best >= 0) {
+            steps.step(curLng, curLat, best, out, offset);
+            return true;
+        }
+
+        return false;
     }
 
-    private double computeBearing(Position curr, Position target){
-        double dx = target.getLng() - curr.getLng();
-        double dy = target.getLat() - curr.getLat();
+    private double computeBearing(double curLng, double curLat, double targetLng, double targetLat){
+        double dx = targetLng - curLng;
+        double dy = targetLat - curLat;
 
         double angleRad = Math.atan2(dy, dx);
         double angleDeg = Math.toDegrees(angleRad);
@@ -225,23 +286,25 @@ public class FlightPathGenerator {
         return angleDeg;
     }
 
-    private Position toResponsePosition(Position position) {
-        double roundedLat = position.getLat();
-        double roundedLng = position.getLng();
-        return new Position(roundedLng, roundedLat);
+    public int calculateTotalMoves(Position servicePoint, List<MedDispatchRec> deliveries){
+        return calculateTotalMoves(servicePoint.getLng(), servicePoint.getLat(), deliveries);
     }
 
-    public int calculateTotalMoves(Position servicePoint, List<MedDispatchRec> deliveries){
+    public int calculateTotalMoves(double spLng, double spLat, List<MedDispatchRec> deliveries){
         int totalMoves = 0;
-        Position current = servicePoint;
+        double curLng = spLng;
+        double curLat = spLat;
 
         for (MedDispatchRec delivery : deliveries) {
-            double dist = positionService.distance(current, delivery.getDelivery());
+            double deliveryLng = delivery.getDelivery().getLng();
+            double deliveryLat = delivery.getDelivery().getLat();
+            double dist = positionService.distance(curLng, curLat, deliveryLng, deliveryLat);
             totalMoves += (int) Math.ceil(dist / positionService.STEP_CONST);
-            current = delivery.getDelivery();
+            curLng = deliveryLng;
+            curLat = deliveryLat;
         }
 
-        double returnDist = positionService.distance(current, servicePoint);
+        double returnDist = positionService.distance(curLng, curLat, spLng, spLat);
         totalMoves += (int) Math.ceil(returnDist / positionService.STEP_CONST);
 
         return totalMoves;
@@ -1,5 +1,9 @@
 package ilpREST.ilp_submission_1.services;
 import ilpREST.ilp_submission_1.dto.*;
+import ilpREST.ilp_submission_1.model.DeliveryPlan;
+import ilpREST.ilp_submission_1.model.FlightLeg;
+import ilpREST.ilp_submission_1.pathfinding.CoordinatePath;
+import ilpREST.ilp_submission_1.pathfinding.DirectionCodec;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -7,6 +11,12 @@ import java.util.*;
 @Service
 public class GeoJsonService {
 
+    private final DirectionCodec codec;
+
+    public GeoJsonService(PositionService positionService) {
+        this.codec = new DirectionCodec(positionService.getSteps());
+    }
+
     public GeoJsonFeatureCollection convert(CalcDeliveryPathResponse input){
         GeoJsonFeatureCollection ret = new GeoJsonFeatureCollection();
 
@@ -32,4 +42,49 @@ public class GeoJsonService {
         }
         return ret;
     }
+
+    /**
+     * Compact variant: each LineString keeps only the waypoints where the move direction changes
+     * (the line drawn is the same), and the exact per-step path travels as the {@code moves} /
+     * {@code jumps} properties in {@link DirectionCodec} form.
+     */
+    public GeoJsonFeatureCollection convertCompact(DeliveryPlan plan){
+        GeoJsonFeatureCollection ret = new GeoJsonFeatureCollection();
+
+        for (Map.Entry<String, List<FlightLeg>> entry : plan.getLegsByDrone().entrySet()){
+            String droneId = entry.getKey();
+
+            for (FlightLeg leg : entry.getValue()){
+                CoordinatePath path = leg.getPath();
+                DirectionCodec.Encoded encoded = codec.encode(path);
+
+                List<List<Double>> coords = new ArrayList<>();
+                coords.add(List.of(path.lng(0), path.lat(0)));
+                for (int i = 1; i < path.size(); i++) {
+                    boolean last = i == path.size() - 1;
+                    int code = codec.moveCode(path, i - 1);
+                    if (last || code == DirectionCodec.JUMP || code != codec.moveCode(path, i)) {
+                        coords.add(List.of(path.lng(i), path.lat(i)));
+                    }
+                }
+
+                List<List<Double>> jumps = new ArrayList<>();
+                double[] jumpCoords = encoded.getJumps();
+                for (int i = 0; i < jumpCoords.length; i += 2) {
+                    jumps.add(List.of(jumpCoords[i], jumpCoords[i + 1]));
+                }
+
+                GeoJsonFeature line = new GeoJsonFeature()
+                        .prop("droneId", droneId)
+                        .prop("deliveryId", leg.getDeliveryId())
+                        .prop("segmentType", leg.getDeliveryId() == null ? "return" : "delivery")
+                        .prop("moves", encoded.getMoves())
+                        .prop("jumps", jumps)
+                        .geometry(GeoJsonGeometry.line(coords));
+
+                ret.add(line);
+            }
+        }
+        return ret;
+    }
 }
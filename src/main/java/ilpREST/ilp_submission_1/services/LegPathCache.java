@@ -0,0 +1,125 @@
+package ilpREST.ilp_submission_1.services;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of planned legs, shared across requests.
+ * Entries are keyed by the exact leg end points plus the restricted-zone version, and weighed by
+ * waypoint count so a few very long legs cannot crowd out the many short recurring ones.
+ * Hit, miss and eviction counts are published to the actuator metrics as {@code ilp.leg.cache.*}.
+ */
+@Service
+public class LegPathCache implements MeterBinder {
+    private final int maxWaypoints;
+    private final LinkedHashMap<LegKey, double[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long waypoints;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LegPathCache(@Value("${ilp.leg-cache.max-waypoints:2000000}") int maxWaypoints) {
+        this.maxWaypoints = maxWaypoints;
+    }
+
+    /**
+     * @return the cached path as interleaved lng/lat pairs, or null on a miss
+     */
+    public double[] get(double startLng, double startLat, double endLng, double endLat, long zoneVersion) {
+        LegKey key = new LegKey(startLng, startLat, endLng, endLat, zoneVersion);
+        double[] path;
+        synchronized (this) {
+            path = entries.get(key);
+        }
+        if (path == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return path;
+    }
+
+    public void put(double startLng, double startLat, double endLng, double endLat, long zoneVersion, double[] path) {
+        int weight = path.length / 2;
+        if (weight > maxWaypoints) {
+            return;
+        }
+        LegKey key = new LegKey(startLng, startLat, endLng, endLat, zoneVersion);
+        synchronized (this) {
+            double[] previous = entries.put(key, path);
+            if (previous != null) {
+                waypoints -= previous.length / 2;
+            }
+            waypoints += weight;
+
+            Iterator<double[]> eldest = entries.values().iterator();
+            while (waypoints > maxWaypoints && eldest.hasNext()) {
+                waypoints -= eldest.next().length / 2;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("ilp.leg.cache.hits", hits, AtomicLong::get).register(registry);
+        FunctionCounter.builder("ilp.leg.cache.misses", misses, AtomicLong::get).register(registry);
+        FunctionCounter.builder("ilp.leg.cache.evictions", evictions, AtomicLong::get).register(registry);
+        Gauge.builder("ilp.leg.cache.size", this, LegPathCache::size).register(registry);
+        Gauge.builder("ilp.leg.cache.waypoints", this, LegPathCache::getWaypoints).register(registry);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        waypoints = 0;
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getWaypoints() { return waypoints; }
+
+    private static final class LegKey {
+        private final long startLng;
+        private final long startLat;
+        private final long endLng;
+        private final long endLat;
+        private final long zoneVersion;
+
+        LegKey(double startLng, double startLat, double endLng, double endLat, long zoneVersion) {
+            this.startLng = Double.doubleToLongBits(startLng);
+            this.startLat = Double.doubleToLongBits(startLat);
+            this.endLng = Double.doubleToLongBits(endLng);
+            this.endLat = Double.doubleToLongBits(endLat);
+            this.zoneVersion = zoneVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof LegKey other)) return false;
+            return startLng == other.startLng && startLat == other.startLat
+                    && endLng == other.endLng && endLat == other.endLat
+                    && zoneVersion == other.zoneVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = startLng;
+            h = 31 * h + startLat;
+            h = 31 * h + endLng;
+            h = 31 * h + endLat;
+            h = 31 * h + zoneVersion;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ilpREST.ilp_submission_1.services;
+import ilpREST.ilp_submission_1.pathfinding.SearchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planner telemetry, published to the actuator metrics (and {@code /actuator/prometheus}) as
+ * {@code ilp.planner.*}: a timer per planning phase, a leg timer and search effort tagged with the
+ * route that served the leg, greedy candidates rebuilt per round, fallback singular flights and
+ * routing failures.
+ */
+@Service
+public class PlannerMetrics {
+
+    public enum Phase {
+        CAPABILITY_FILTER("capability_filter"),
+        GREEDY("greedy"),
+        FALLBACK("fallback");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * How a leg was planned: walked straight, over the visibility graph, or by the lattice search
+     * from both ends or from the start only.
+     */
+    public enum Route {
+        DIRECT("direct"),
+        VISIBILITY("visibility"),
+        BIDIRECTIONAL("bidi"),
+        FORWARD("forward");
+
+        private final String tag;
+
+        Route(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum RoutingFailure {
+        DESTINATION_RESTRICTED("destination_restricted"),
+        NO_PATH("no_path");
+
+        private final String tag;
+
+        RoutingFailure(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Timer plan;
+    private final EnumMap<Phase, Timer> phases = new EnumMap<>(Phase.class);
+    private final EnumMap<Route, Timer> legs = new EnumMap<>(Route.class);
+    private final EnumMap<Route, DistributionSummary> searchIterations = new EnumMap<>(Route.class);
+    private final EnumMap<Route, DistributionSummary> searchNodes = new EnumMap<>(Route.class);
+    private final EnumMap<Route, Counter> stepChecks = new EnumMap<>(Route.class);
+    private final DistributionSummary greedyCandidates;
+    private final Counter fallbackAssigned;
+    private final Counter fallbackUnassigned;
+    private final EnumMap<RoutingFailure, Counter> routingFailures = new EnumMap<>(RoutingFailure.class);
+
+    public PlannerMetrics(MeterRegistry registry) {
+        this.plan = Timer.builder("ilp.planner.plan")
+                .description("Whole calcDeliveryPath planning runs")
+                .register(registry);
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, Timer.builder("ilp.planner.phase")
+                    .description("Planner phases; greedy and fallback are timed per date partition")
+                    .tag("phase", phase.tag)
+                    .register(registry));
+        }
+        for (Route route : Route.values()) {
+            legs.put(route, Timer.builder("ilp.planner.leg")
+                    .description("Legs planned (cache misses only), by the route that served them; includes failed earlier routes")
+                    .tag("route", route.tag)
+                    .register(registry));
+            if (route == Route.DIRECT) {
+                continue;
+            }
+            searchIterations.put(route, DistributionSummary.builder("ilp.planner.astar.iterations")
+                    .description("Nodes expanded (or steps walked) per leg search, found or not")
+                    .baseUnit("nodes")
+                    .tag("route", route.tag)
+                    .register(registry));
+            searchNodes.put(route, DistributionSummary.builder("ilp.planner.astar.nodes")
+                    .description("Distinct nodes discovered per leg search")
+                    .baseUnit("nodes")
+                    .tag("route", route.tag)
+                    .register(registry));
+            stepChecks.put(route, Counter.builder("ilp.planner.astar.step.checks")
+                    .description("Moves checked against the restricted zones during leg searches")
+                    .tag("route", route.tag)
+                    .register(registry));
+        }
+        this.greedyCandidates = DistributionSummary.builder("ilp.planner.greedy.candidates")
+                .description("Drone x service point candidates rebuilt per greedy round")
+                .baseUnit("candidates")
+                .register(registry);
+        this.fallbackAssigned = Counter.builder("ilp.planner.fallback.flights")
+                .description("Deliveries tried as singular fallback flights")
+                .tag("outcome", "assigned")
+                .register(registry);
+        this.fallbackUnassigned = Counter.builder("ilp.planner.fallback.flights")
+                .description("Deliveries tried as singular fallback flights")
+                .tag("outcome", "unassigned")
+                .register(registry);
+        for (RoutingFailure failure : RoutingFailure.values()) {
+            routingFailures.put(failure, Counter.builder("ilp.planner.routing.failures")
+                    .description("Legs that could not be routed")
+                    .tag("reason", failure.tag)
+                    .register(registry));
+        }
+    }
+
+    public void recordPlan(long startNanos) {
+        plan.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPhase(Phase phase, long startNanos) {
+        phases.get(phase).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param route {@link Route#VISIBILITY}, {@link Route#BIDIRECTIONAL} or {@link Route#FORWARD}
+     */
+    public void recordSearch(Route route, SearchResult result) {
+        searchIterations.get(route).record(result.getIterations());
+        searchNodes.get(route).record(result.getNodes());
+        stepChecks.get(route).increment(result.getStepChecks());
+    }
+
+    public void recordLeg(Route route, long startNanos) {
+        legs.get(route).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordGreedyRound(int candidatesRebuilt) {
+        greedyCandidates.record(candidatesRebuilt);
+    }
+
+    public void recordFallback(boolean assigned) {
+        (assigned ? fallbackAssigned : fallbackUnassigned).increment();
+    }
+
+    public void recordRoutingFailure(RoutingFailure failure) {
+        routingFailures.get(failure).increment();
+    }
+}
@@ -0,0 +1,136 @@
+package ilpREST.ilp_submission_1.services;
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.dto.PlanningJobStatus;
+import ilpREST.ilp_submission_1.model.DeliveryPlan;
+import ilpREST.ilp_submission_1.model.PlanningJob;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs calcDeliveryPath batches as background jobs so planning never holds a servlet thread.
+ * Jobs run on a small fixed worker pool behind a bounded queue; when the queue is full, submit
+ * fails fast with a {@link RejectedExecutionException} instead of piling up work.
+ * Finished jobs are kept for the retention period and then dropped.
+ */
+@Service
+public class PlanningJobService {
+    private static final Logger log = LoggerFactory.getLogger(PlanningJobService.class);
+
+    private final DeliveryPathService deliveryPathService;
+    private final ThreadPoolExecutor workers;
+    private final Duration retention;
+    private final Map<String, PlanningJob> jobs = new ConcurrentHashMap<>();
+
+    public PlanningJobService(DeliveryPathService deliveryPathService,
+                              @Value("${ilp.jobs.workers:2}") int workerCount,
+                              @Value("${ilp.jobs.queue-capacity:16}") int queueCapacity,
+                              @Value("${ilp.jobs.retention-ms:600000}") long retentionMs) {
+        this.deliveryPathService = deliveryPathService;
+        this.retention = Duration.ofMillis(retentionMs);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "planning-job-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public PlanningJob submit(List<MedDispatchRec> requests) {
+        evictExpired();
+        PlanningJob job = new PlanningJob(UUID.randomUUID().toString(), List.copyOf(requests));
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(workers.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<PlanningJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public Optional<PlanningJob> cancel(String id) {
+        PlanningJob job = jobs.get(id);
+        if (job != null) {
+            job.cancel();
+        }
+        return Optional.ofNullable(job);
+    }
+
+    public static PlanningJobStatus describe(PlanningJob job) {
+        return new PlanningJobStatus(
+                job.getId(),
+                job.getStatus().name(),
+                job.getSubmittedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getCompletedDates(),
+                job.getTotalDates(),
+                job.getError()
+        );
+    }
+
+    private void run(PlanningJob job) {
+        List<MedDispatchRec> requests = job.start();
+        if (requests == null) {
+            return;
+        }
+        try {
+            DeliveryPlan plan = deliveryPathService.planDeliveries(requests, new DeliveryPathService.PlanningListener() {
+                @Override
+                public boolean isCancelled() {
+                    return job.isCancelRequested();
+                }
+
+                @Override
+                public void dateCompleted(LocalDate date, DeliveryPlan datePlan) {
+                    job.dateCompleted(date, datePlan);
+                }
+            });
+            if (job.isCancelRequested()) {
+                job.cancelled();
+            } else {
+                job.complete(plan);
+            }
+        } catch (CancellationException e) {
+            job.cancelled();
+        } catch (RuntimeException e) {
+            // a cancellation can also arrive wrapped, e.g. rethrown by the planner pool's join
+            if (job.isCancelRequested()) {
+                job.cancelled();
+            } else {
+                log.warn("Planning job {} failed: {}", job.getId(), e.getMessage());
+                job.fail(e.getMessage());
+            }
+        }
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
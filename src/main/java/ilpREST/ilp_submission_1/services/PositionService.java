@@ -1,6 +1,7 @@
 package ilpREST.ilp_submission_1.services;
 import java.util.List;
 import ilpREST.ilp_submission_1.dto.Position;
+import ilpREST.ilp_submission_1.pathfinding.StepTable;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -10,9 +11,15 @@ public class PositionService {
     final double STEP_CONST = 0.00015;
     final double ANGLE_CONST = 22.5;
 
+    private final StepTable steps = new StepTable(STEP_CONST, ANGLE_CONST);
+
     public double distance(Position p1, Position p2){
-        double dx = p1.getLng() - p2.getLng();
-        double dy = p1.getLat() - p2.getLat();
+        return distance(p1.getLng(), p1.getLat(), p2.getLng(), p2.getLat());
+    }
+
+    public double distance(double lng1, double lat1, double lng2, double lat2){
+        double dx = lng1 - lng2;
+        double dy = lat1 - lat2;
         return Math.sqrt(dx * dx + dy * dy);
     }
 
@@ -26,6 +33,11 @@ public class PositionService {
         if (angle % ANGLE_CONST != 0){
             throw new IllegalArgumentException("Illegal direction");
         }
+        int direction = steps.directionOf(angle);
+        if (direction >= 0) {
+            return new Position(start.getLng() + steps.dLng(direction), start.getLat() + steps.dLat(direction));
+        }
+        // angles outside [0, 360) keep the original trig so REST results stay bit-identical
         double rad = Math.toRadians(angle);
 
         double newLng = start.getLng() + STEP_CONST * Math.cos(rad);
@@ -38,6 +50,19 @@ public class PositionService {
 
     }
 
+    /**
+     * Allocation-free step for hot loops: writes the point one step from (lng, lat) in compass
+     * direction {@code direction} (0 = east, counting anticlockwise in ANGLE_CONST increments)
+     * into out[offset] and out[offset + 1].
+     */
+    public void nextPosition(double lng, double lat, int direction, double[] out, int offset){
+        steps.step(lng, lat, direction, out, offset);
+    }
+
+    public StepTable getSteps(){
+        return steps;
+    }
+
     public boolean isInRegion(Position pt, List<Position> vertices){
 
         if (vertices.isEmpty()){
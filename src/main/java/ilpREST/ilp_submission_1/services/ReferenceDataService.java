@@ -0,0 +1,229 @@
+package ilpREST.ilp_submission_1.services;
+import ilpREST.ilp_submission_1.dto.*;
+import ilpREST.ilp_submission_1.model.ReferenceData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the upstream ILP reference data. The data is loaded at startup, refreshed in the background
+ * and published as an immutable, versioned {@link ReferenceData} snapshot that all services read from.
+ * Upstream calls share one pooled JDK HttpClient, and the four resources are fetched concurrently
+ * on virtual threads, so a reload costs the slowest fetch rather than the sum of all four.
+ * Fetch latency is timed per endpoint and outcome as {@code ilp.upstream.fetch}.
+ */
+@Service
+public class ReferenceDataService {
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    private final String ilpEndpoint;
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final UpstreamResource<Drone[]> drones = new UpstreamResource<>("/drones", Drone[].class);
+    private final UpstreamResource<ServicePointInfo[]> servicePointInfos =
+            new UpstreamResource<>("/drones-for-service-points", ServicePointInfo[].class);
+    private final UpstreamResource<ServicePointLocation[]> servicePointLocations =
+            new UpstreamResource<>("/service-points", ServicePointLocation[].class);
+    private final UpstreamResource<RestrictedArea[]> restrictedAreas =
+            new UpstreamResource<>("/restricted-areas", RestrictedArea[].class);
+
+    private final AtomicLong versions = new AtomicLong();
+    private volatile ReferenceData current;
+    // a resource changed but the snapshot was not rebuilt yet (another fetch in the same reload failed)
+    private boolean unpublishedChange;
+
+    public ReferenceDataService(String ilpEndpoint) {
+        this(ilpEndpoint, 5000, 10000, new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public ReferenceDataService(@Value("${ilp.endpoint}") String ilpEndpoint,
+                                @Value("${ilp.upstream.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                @Value("${ilp.upstream.read-timeout-ms:10000}") long readTimeoutMs,
+                                MeterRegistry meterRegistry) {
+        this.ilpEndpoint = ilpEndpoint;
+        this.meterRegistry = meterRegistry;
+
+        // HttpClient keeps connections alive and pools them per host (HTTP/2 where the server offers it)
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Current snapshot, loading it synchronously if the startup load has not succeeded yet.
+     * Upstream failures on that first load propagate to the caller.
+     */
+    public ReferenceData current() {
+        ReferenceData snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (current == null) {
+                    reload();
+                }
+                snapshot = current;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Background refresh. A failed refresh keeps serving the last good snapshot.
+     */
+    @Scheduled(initialDelayString = "${ilp.reference-data.initial-delay-ms:0}",
+            fixedDelayString = "${ilp.reference-data.refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Reference data refresh failed, keeping version {}: {}",
+                    current != null ? current.getVersion() : "none", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-fetches every upstream resource and publishes a new snapshot if any of them changed.
+     * @return the snapshot now being served
+     */
+    public synchronized ReferenceData reload() {
+        List<UpstreamResource<?>> resources = List.of(drones, servicePointInfos, servicePointLocations, restrictedAreas);
+        RuntimeException failure = null;
+
+        try (ExecutorService fetchers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> fetches = new ArrayList<>(resources.size());
+            for (UpstreamResource<?> resource : resources) {
+                fetches.add(fetchers.submit(resource::fetch));
+            }
+            for (Future<Boolean> fetch : fetches) {
+                try {
+                    unpublishedChange |= fetch.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException re
+                                ? re : new IllegalStateException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while loading reference data", e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        if (unpublishedChange || current == null) {
+            current = new ReferenceData(
+                    versions.incrementAndGet(),
+                    drones.asList(),
+                    servicePointInfos.asList(),
+                    servicePointLocations.asList(),
+                    restrictedAreas.asList()
+            );
+            unpublishedChange = false;
+            log.info("Loaded reference data version {}: {} drones, {} service points, {} restricted areas",
+                    current.getVersion(), current.getDrones().size(),
+                    current.getServicePointLocations().size(), current.getRestrictedAreas().size());
+        }
+        return current;
+    }
+
+    /**
+     * One upstream JSON array fetched with conditional GETs. The body is only re-parsed when
+     * the server reports a change (ETag / Last-Modified) and the raw bytes actually differ.
+     */
+    private final class UpstreamResource<T> {
+        private final String path;
+        private final Class<T> type;
+        private String etag;
+        private String lastModified;
+        private byte[] raw;
+        private T parsed;
+
+        UpstreamResource(String path, Class<T> type) {
+            this.path = path;
+            this.type = type;
+        }
+
+        boolean fetch() {
+            long start = System.nanoTime();
+            String outcome = "error";
+            try {
+                boolean changed = fetchIfChanged();
+                outcome = changed ? "changed" : "unchanged";
+                return changed;
+            } finally {
+                Timer.builder("ilp.upstream.fetch")
+                        .description("Upstream ILP fetches")
+                        .tag("endpoint", path)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private boolean fetchIfChanged() {
+            HttpHeaders headers = new HttpHeaders();
+            if (raw != null) {
+                if (etag != null) headers.setIfNoneMatch(etag);
+                if (lastModified != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+
+            ResponseEntity<byte[]> response = restTemplate.exchange(
+                    ilpEndpoint + path, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+            if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && raw != null) {
+                return false;
+            }
+
+            etag = response.getHeaders().getETag();
+            lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+
+            byte[] body = response.getBody();
+            if (raw != null && Arrays.equals(raw, body)) {
+                return false;
+            }
+            try {
+                parsed = body == null ? null : mapper.readValue(body, type);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Malformed response from " + path, e);
+            }
+            raw = body;
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        <E> List<E> asList() {
+            return parsed == null ? List.of() : Arrays.asList((E[]) parsed);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.ServicePointInfo;
+import ilpREST.ilp_submission_1.services.AvailabilityService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AvailabilityIndex Unit Tests")
+public class AvailabilityIndexTest {
+
+    // the list-based checks only read their arguments
+    private final AvailabilityService availabilityService = new AvailabilityService(null);
+
+    private static ServicePointInfo servicePoint(long id, Map<String, List<ServicePointInfo.AvailabilityInfo>> drones) {
+        List<ServicePointInfo.ServicePointDrone> spDrones = new ArrayList<>();
+        drones.forEach((droneId, windows) -> {
+            ServicePointInfo.ServicePointDrone spd = new ServicePointInfo.ServicePointDrone();
+            spd.setId(droneId);
+            spd.setAvailability(windows);
+            spDrones.add(spd);
+        });
+        ServicePointInfo info = new ServicePointInfo();
+        info.setServicePointId(id);
+        info.setDrones(spDrones);
+        return info;
+    }
+
+    private static ServicePointInfo.AvailabilityInfo window(String day, String from, String until) {
+        return new ServicePointInfo.AvailabilityInfo(day, LocalTime.parse(from), LocalTime.parse(until));
+    }
+
+    @Test
+    @DisplayName("Agrees with the linear window scan on random schedules and times")
+    void testMatchesLinearScan() {
+        Random random = new Random(11);
+        String[] days = {"MONDAY", "tuesday", "Wednesday", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY", "NOTADAY"};
+        LocalDate monday = LocalDate.of(2025, 12, 22);
+
+        for (int trial = 0; trial < 50; trial++) {
+            Map<Long, List<ServicePointInfo.AvailabilityInfo>> bySp = new LinkedHashMap<>();
+            List<ServicePointInfo> infos = new ArrayList<>();
+            for (long sp = 1; sp <= 3; sp++) {
+                List<ServicePointInfo.AvailabilityInfo> windows = new ArrayList<>();
+                int count = random.nextInt(8);
+                for (int i = 0; i < count; i++) {
+                    LocalTime from = LocalTime.ofSecondOfDay(random.nextInt(86400));
+                    LocalTime until = LocalTime.ofSecondOfDay(random.nextInt(86400));
+                    windows.add(new ServicePointInfo.AvailabilityInfo(days[random.nextInt(days.length)], from, until));
+                }
+                bySp.put(sp, windows);
+                infos.add(servicePoint(sp, Map.of("d", windows)));
+            }
+
+            AvailabilityIndex index = AvailabilityIndex.compile(infos);
+            for (int q = 0; q < 500; q++) {
+                LocalDate date = monday.plusDays(random.nextInt(7));
+                LocalTime time = LocalTime.ofNanoOfDay(random.nextInt(86400) * 1_000_000_000L
+                        + (random.nextBoolean() ? 0 : random.nextInt(1_000_000_000)));
+
+                assertEquals(availabilityService.isAvailableAtAnyServicePoint(bySp, date, time),
+                        index.forDrone("d").isAvailable(date, time), date + " " + time);
+                for (long sp = 1; sp <= 3; sp++) {
+                    assertEquals(availabilityService.isAvailableAtServicePoint(bySp.get(sp), date, time),
+                            index.forDrone("d", sp).isAvailable(date, time), "sp " + sp + " " + date + " " + time);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Window bounds are inclusive and overlapping windows merge")
+    void testBoundsAndMerging() {
+        AvailabilityIndex index = AvailabilityIndex.compile(List.of(
+                servicePoint(1, Map.of("d", List.of(
+                        window("MONDAY", "09:00:00", "12:00:00"),
+                        window("MONDAY", "11:00:00", "13:00:00"),
+                        window("MONDAY", "13:00:01", "14:00:00"))))));
+        AvailabilityIndex.Schedule schedule = index.forDrone("d");
+
+        assertTrue(schedule.isAvailable(DayOfWeek.MONDAY, LocalTime.parse("09:00:00")));
+        assertTrue(schedule.isAvailable(DayOfWeek.MONDAY, LocalTime.parse("12:30:00")));
+        assertTrue(schedule.isAvailable(DayOfWeek.MONDAY, LocalTime.parse("13:00:00")));
+        assertFalse(schedule.isAvailable(DayOfWeek.MONDAY, LocalTime.parse("13:00:00.5")));
+        assertTrue(schedule.isAvailable(DayOfWeek.MONDAY, LocalTime.parse("14:00:00")));
+        assertFalse(schedule.isAvailable(DayOfWeek.MONDAY, LocalTime.parse("08:59:59")));
+        assertFalse(schedule.isAvailable(DayOfWeek.TUESDAY, LocalTime.parse("10:00:00")));
+    }
+
+    @Test
+    @DisplayName("Unknown drones and service points are never available")
+    void testUnknown() {
+        AvailabilityIndex index = AvailabilityIndex.compile(List.of(
+                servicePoint(1, Map.of("d", List.of(window("MONDAY", "00:00:00", "23:59:59"))))));
+
+        assertSame(AvailabilityIndex.Schedule.NEVER, index.forDrone("missing"));
+        assertSame(AvailabilityIndex.Schedule.NEVER, index.forDrone("d", 2));
+        assertTrue(AvailabilityIndex.Schedule.NEVER.isEmpty());
+        assertSame(AvailabilityIndex.EMPTY, AvailabilityIndex.compile(null));
+    }
+}
@@ -0,0 +1,125 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.AttributeQuery;
+import ilpREST.ilp_submission_1.dto.Drone;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DroneQuery / DroneQueryIndex Unit Tests")
+public class DroneQueryTest {
+
+    private static AttributeQuery query(String attribute, String operator, String value) {
+        AttributeQuery q = new AttributeQuery();
+        q.setAttribute(attribute);
+        q.setOperator(operator);
+        q.setValue(value);
+        return q;
+    }
+
+    private static List<Drone> fleet(Random random, int size) {
+        List<Drone> drones = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Drone drone = new Drone();
+            drone.setId(String.valueOf(i));
+            if (random.nextInt(10) != 0) {
+                Drone.Capability cap = new Drone.Capability();
+                cap.setCapacity(random.nextInt(8) + 0.5 * random.nextInt(2));
+                cap.setMaxMoves(1000 + 250 * random.nextInt(8));
+                cap.setCostPerMove(0.01 * random.nextInt(4));
+                cap.setCostInitial(random.nextInt(4) == 0 ? -0.0 : random.nextInt(3));
+                cap.setCostFinal(random.nextInt(20) == 0 ? Double.NaN : random.nextInt(3));
+                cap.setCooling(random.nextBoolean());
+                cap.setHeating(random.nextBoolean());
+                drone.setCapability(cap);
+            }
+            drones.add(drone);
+        }
+        return drones;
+    }
+
+    private static double numeric(Drone.Capability cap, String attribute) {
+        switch (attribute) {
+            case "capacity": return cap.getCapacity();
+            case "maxmoves": return cap.getMaxMoves();
+            case "costpermove": return cap.getCostPerMove();
+            case "costinitial": return cap.getCostInitial();
+            default: return cap.getCostFinal();
+        }
+    }
+
+    private static boolean compare(double left, String op, double right) {
+        switch (op) {
+            case "=": return left == right;
+            case "!=": return left != right;
+            case "<": return left < right;
+            case "<=": return left <= right;
+            case ">": return left > right;
+            default: return left >= right;
+        }
+    }
+
+    @Test
+    @DisplayName("Range and equality lookups agree with comparing every drone")
+    void testMatchesLinearEvaluation() {
+        Random random = new Random(13);
+        List<Drone> drones = fleet(random, 250);
+        DroneQueryIndex index = DroneQueryIndex.build(drones);
+
+        String[] attributes = {"capacity", "maxmoves", "costpermove", "costinitial", "costfinal"};
+        String[] operators = {"=", "!=", "<", "<=", ">", ">="};
+        double[] values = {0, -0.0, 0.5, 1, 2.5, 4, 7.5, 1500, 0.02, -1, 1e9};
+
+        for (String attribute : attributes) {
+            for (String op : operators) {
+                for (double value : values) {
+                    List<String> expected = new ArrayList<>();
+                    for (Drone drone : drones) {
+                        Drone.Capability cap = drone.getCapability();
+                        if (cap != null && compare(numeric(cap, attribute), op, value)) {
+                            expected.add(drone.getId());
+                        }
+                    }
+                    DroneQuery query = DroneQuery.compile(List.of(query(attribute, op, String.valueOf(value))));
+                    assertEquals(expected, query.evaluate(index), attribute + " " + op + " " + value);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Booleans ignore the operator; unknown attributes, operators and numbers match nothing")
+    void testCompileRules() {
+        List<Drone> drones = fleet(new Random(2), 40);
+        DroneQueryIndex index = DroneQueryIndex.build(drones);
+
+        List<String> cooling = new ArrayList<>();
+        for (Drone drone : drones) {
+            if (drone.getCapability() != null && drone.getCapability().isCooling()) {
+                cooling.add(drone.getId());
+            }
+        }
+        assertEquals(cooling, DroneQuery.compile(List.of(query(" Cooling ", ">", "TRUE"))).evaluate(index));
+        assertEquals(cooling, DroneQuery.equality("COOLING", "true").evaluate(index));
+
+        assertTrue(DroneQuery.compile(List.of(query("colour", "=", "red"))).evaluate(index).isEmpty());
+        assertTrue(DroneQuery.compile(List.of(query("capacity", "~", "4"))).evaluate(index).isEmpty());
+        assertTrue(DroneQuery.compile(List.of(query("capacity", ">", "four"))).evaluate(index).isEmpty());
+        assertEquals(drones.size(), DroneQuery.compile(List.of()).evaluate(index).size());
+        assertThrows(NumberFormatException.class, () -> DroneQuery.equality("capacity", "four"));
+    }
+
+    @Test
+    @DisplayName("Equivalent queries share one cache key")
+    void testKeyIsNormalised() {
+        DroneQuery a = DroneQuery.compile(List.of(query("Capacity", " > ", "4"), query("cooling", "=", "TRUE ")));
+        DroneQuery b = DroneQuery.compile(List.of(query("cooling", "!=", "true"), query("capacity", ">", "4.0")));
+        DroneQuery c = DroneQuery.compile(List.of(query("capacity", ">=", "4")));
+
+        assertEquals(a.getKey(), b.getKey());
+        assertNotEquals(a.getKey(), c.getKey());
+    }
+}
@@ -0,0 +1,106 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.Drone;
+import ilpREST.ilp_submission_1.dto.ServicePointInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FleetIndex Unit Tests")
+public class FleetIndexTest {
+
+    private static final String[] DAYS = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY"};
+
+    private static Drone drone(String id, Drone.Capability capability) {
+        Drone drone = new Drone();
+        drone.setId(id);
+        drone.setName("drone " + id);
+        drone.setCapability(capability);
+        return drone;
+    }
+
+    private static Drone.Capability capability(double capacity, boolean cooling, boolean heating) {
+        Drone.Capability cap = new Drone.Capability();
+        cap.setCapacity(capacity);
+        cap.setCooling(cooling);
+        cap.setHeating(heating);
+        return cap;
+    }
+
+    @Test
+    @DisplayName("Agrees with canHandle plus the compiled schedules on a random fleet")
+    void testMatchesPerDroneChecks() {
+        Random random = new Random(3);
+        List<Drone> drones = new ArrayList<>();
+        List<ServicePointInfo> infos = new ArrayList<>();
+        for (long sp = 1; sp <= 3; sp++) {
+            ServicePointInfo info = new ServicePointInfo();
+            info.setServicePointId(sp);
+            info.setDrones(new ArrayList<>());
+            infos.add(info);
+        }
+        for (int i = 0; i < 300; i++) {
+            String id = String.valueOf(i);
+            drones.add(drone(id, random.nextInt(20) == 0 ? null
+                    : capability(random.nextInt(12) + 0.5 * random.nextInt(2), random.nextBoolean(), random.nextBoolean())));
+            for (ServicePointInfo info : infos) {
+                if (random.nextInt(3) == 0) {
+                    continue;
+                }
+                List<ServicePointInfo.AvailabilityInfo> windows = new ArrayList<>();
+                for (int w = random.nextInt(4); w > 0; w--) {
+                    int from = random.nextInt(86400);
+                    windows.add(new ServicePointInfo.AvailabilityInfo(DAYS[random.nextInt(7)],
+                            LocalTime.ofSecondOfDay(from), LocalTime.ofSecondOfDay(from + random.nextInt(86400 - from))));
+                }
+                ServicePointInfo.ServicePointDrone spd = new ServicePointInfo.ServicePointDrone();
+                spd.setId(id);
+                spd.setAvailability(windows);
+                info.getDrones().add(spd);
+            }
+        }
+
+        AvailabilityIndex availability = AvailabilityIndex.compile(infos);
+        FleetIndex fleet = FleetIndex.build(drones, availability);
+        assertEquals(drones.size(), fleet.size());
+
+        LocalDate monday = LocalDate.of(2025, 12, 22);
+        for (int q = 0; q < 2000; q++) {
+            double capacity = random.nextInt(14) + 0.5 * random.nextInt(2);
+            boolean cooling = random.nextBoolean();
+            boolean heating = random.nextBoolean();
+            LocalDate date = monday.plusDays(random.nextInt(7));
+            LocalTime time = LocalTime.ofNanoOfDay(random.nextInt(86400) * 1_000_000_000L
+                    + (random.nextInt(4) == 0 ? random.nextInt(1_000_000_000) : 0));
+
+            BitSet capable = fleet.capableDrones(capacity, cooling, heating);
+            BitSet available = fleet.capableDrones(capacity, cooling, heating, date, time);
+            for (int i = 0; i < drones.size(); i++) {
+                Drone d = drones.get(i);
+                boolean canHandle = d.canHandle(capacity, cooling, heating);
+                assertEquals(canHandle, capable.get(i), "drone " + i);
+                assertEquals(canHandle && availability.forDrone(d.getId()).isAvailable(date, time),
+                        available.get(i), "drone " + i + " at " + date + " " + time);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Results are fresh copies and an empty fleet matches nothing")
+    void testResultsAreIndependent() {
+        FleetIndex fleet = FleetIndex.build(List.of(drone("1", capability(4, true, false))), AvailabilityIndex.EMPTY);
+        BitSet first = fleet.capableDrones(1, false, false);
+        first.clear();
+        assertTrue(fleet.capableDrones(1, false, false).get(0));
+        assertTrue(fleet.capableDrones(1, false, false, LocalDate.of(2025, 12, 22), LocalTime.NOON).isEmpty());
+
+        FleetIndex empty = FleetIndex.build(List.of(), AvailabilityIndex.EMPTY);
+        assertEquals(0, empty.size());
+        assertTrue(empty.capableDrones(0, false, false).isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.dto.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MoveMatrix Unit Tests")
+public class MoveMatrixTest {
+
+    private static final double STEP = 0.00015;
+
+    private static List<MedDispatchRec> deliveries(Random random, int count) {
+        List<MedDispatchRec> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MedDispatchRec request = new MedDispatchRec();
+            request.setId(i);
+            request.setDelivery(new Position(-3.20 + 0.03 * random.nextDouble(), 55.93 + 0.03 * random.nextDouble()));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private static int expected(Position a, Position b) {
+        double dx = a.getLng() - b.getLng();
+        double dy = a.getLat() - b.getLat();
+        return (int) Math.ceil(Math.sqrt(dx * dx + dy * dy) / STEP);
+    }
+
+    @Test
+    @DisplayName("Every pair reads the same estimate as computing it, both ways and on repeated reads")
+    void testMatchesDirectEstimates() {
+        Random random = new Random(4);
+        Map<Long, Position> servicePoints = new LinkedHashMap<>();
+        servicePoints.put(1L, new Position(-3.1863580788986368, 55.94468066708487));
+        servicePoints.put(2L, new Position(-3.1772, 55.9814));
+        List<MedDispatchRec> requests = deliveries(random, 60);
+        // a delivery on top of another and one on a service point
+        requests.get(1).setDelivery(requests.get(0).getDelivery());
+        requests.get(2).setDelivery(servicePoints.get(2L));
+
+        MoveMatrix moves = MoveMatrix.build(servicePoints, requests, STEP);
+        List<Position> points = new ArrayList<>(servicePoints.values());
+        requests.forEach(r -> points.add(r.getDelivery()));
+
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < points.size(); i++) {
+                for (int j = 0; j < points.size(); j++) {
+                    assertEquals(expected(points.get(i), points.get(j)), moves.moves(i, j), i + " -> " + j);
+                }
+            }
+        }
+        assertEquals(0, moves.moves(moves.delivery(requests.get(0)), moves.delivery(requests.get(1))));
+        assertEquals(0, moves.moves(moves.servicePoint(2L), moves.delivery(requests.get(2))));
+    }
+
+    @Test
+    @DisplayName("Lookups by id and request, and large batches without the delivery block")
+    void testLookups() {
+        Random random = new Random(8);
+        Map<Long, Position> servicePoints = Map.of(7L, new Position(-3.19, 55.944));
+        List<MedDispatchRec> requests = deliveries(random, 2100);
+        MoveMatrix moves = MoveMatrix.build(servicePoints, requests, STEP);
+
+        assertEquals(1, moves.servicePointCount());
+        assertEquals(0, moves.servicePoint(7L));
+        assertEquals(-1, moves.servicePoint(8L));
+        assertEquals(1 + 5, moves.delivery(requests.get(5)));
+        assertThrows(IllegalArgumentException.class, () -> moves.delivery(new MedDispatchRec()));
+
+        for (int q = 0; q < 1000; q++) {
+            MedDispatchRec a = requests.get(random.nextInt(requests.size()));
+            MedDispatchRec b = requests.get(random.nextInt(requests.size()));
+            assertEquals(expected(a.getDelivery(), b.getDelivery()), moves.moves(moves.delivery(a), moves.delivery(b)));
+        }
+    }
+}
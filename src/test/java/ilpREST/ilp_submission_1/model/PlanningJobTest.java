@@ -0,0 +1,77 @@
+package ilpREST.ilp_submission_1.model;
+
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.pathfinding.CoordinatePath;
+import ilpREST.ilp_submission_1.testutil.TestRequestFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PlanningJob / DeliveryPlan Unit Tests")
+public class PlanningJobTest {
+
+    private static DeliveryPlan plan(String droneId, int deliveryId, double cost, int moves) {
+        CoordinatePath path = new CoordinatePath(new double[]{0, 0, 1, 1});
+        Map<String, List<FlightLeg>> legs = new LinkedHashMap<>();
+        legs.put(droneId, List.of(new FlightLeg(deliveryId, path), new FlightLeg(null, path)));
+        return new DeliveryPlan(cost, moves, legs);
+    }
+
+    @Test
+    @DisplayName("Partial plan merges finished dates in date order, grouped by drone")
+    void testPartialPlan() {
+        List<MedDispatchRec> requests = TestRequestFactory.createNDeliveries(3);
+        PlanningJob job = new PlanningJob("job", requests);
+        assertEquals(1, job.getTotalDates());
+        assertSame(requests, job.start());
+        assertEquals(PlanningJob.Status.RUNNING, job.getStatus());
+
+        job.dateCompleted(LocalDate.of(2026, 1, 23), plan("2", 3, 4.0, 10));
+        job.dateCompleted(LocalDate.of(2026, 1, 22), plan("2", 1, 5.0, 20));
+        job.dateCompleted(LocalDate.of(2026, 1, 24), plan("10", 2, 1.0, 5));
+
+        DeliveryPlan partial = job.currentPlan();
+        assertEquals(10.0, partial.getTotalCost(), 1e-12);
+        assertEquals(35, partial.getTotalMoves());
+        assertEquals(List.of("10", "2"), new ArrayList<>(partial.getLegsByDrone().keySet()));
+        List<FlightLeg> drone2 = partial.getLegsByDrone().get("2");
+        assertEquals(1, drone2.get(0).getDeliveryId());
+        assertNull(drone2.get(1).getDeliveryId());
+        assertEquals(3, drone2.get(2).getDeliveryId());
+
+        DeliveryPlan full = plan("1", 1, 2.0, 3);
+        job.complete(full);
+        assertSame(full, job.currentPlan());
+        assertEquals(PlanningJob.Status.COMPLETED, job.getStatus());
+        assertFalse(job.cancel());
+    }
+
+    @Test
+    @DisplayName("Cancelling a queued job finishes it before a worker can start it")
+    void testCancelQueued() {
+        PlanningJob job = new PlanningJob("job", TestRequestFactory.createNDeliveries(2));
+        assertTrue(job.cancel());
+        assertEquals(PlanningJob.Status.CANCELLED, job.getStatus());
+        assertNotNull(job.getFinishedAt());
+        assertNull(job.start());
+    }
+
+    @Test
+    @DisplayName("Cancelling a running job only flags it until the planner stops")
+    void testCancelRunning() {
+        PlanningJob job = new PlanningJob("job", TestRequestFactory.createNDeliveries(2));
+        job.start();
+        assertTrue(job.cancel());
+        assertTrue(job.isCancelRequested());
+        assertEquals(PlanningJob.Status.RUNNING, job.getStatus());
+
+        job.cancelled();
+        assertEquals(PlanningJob.Status.CANCELLED, job.getStatus());
+        job.complete(plan("1", 1, 1.0, 1));
+        assertEquals(PlanningJob.Status.CANCELLED, job.getStatus());
+    }
+}
@@ -0,0 +1,34 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import ilpREST.ilp_submission_1.dto.Position;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CoordinatePath Unit Tests")
+public class CoordinatePathTest {
+
+    @Test
+    @DisplayName("Position view mirrors the packed coordinates")
+    void testPositionView() {
+        CoordinatePath path = new CoordinatePath(new double[]{-3.1863, 55.9446, -3.1862, 55.9447, -3.1861, 55.9448});
+        List<Position> positions = path.toPositions();
+
+        assertEquals(3, path.size());
+        assertEquals(3, positions.size());
+        for (int i = 0; i < path.size(); i++) {
+            assertEquals(path.lng(i), positions.get(i).getLng(), 0.0);
+            assertEquals(path.lat(i), positions.get(i).getLat(), 0.0);
+        }
+        assertThrows(UnsupportedOperationException.class, () -> positions.add(new Position(0.0, 0.0)));
+    }
+
+    @Test
+    @DisplayName("Rejects an odd number of coordinates")
+    void testRejectsOddLength() {
+        assertThrows(IllegalArgumentException.class, () -> new CoordinatePath(new double[]{1, 2, 3}));
+    }
+}
@@ -0,0 +1,84 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DirectionCodec Unit Tests")
+public class DirectionCodecTest {
+
+    private static final double STEP = 0.00015;
+    private static final double START_LNG = -3.1863580788986368;
+    private static final double START_LAT = 55.94468066708487;
+
+    private final DirectionCodec codec = new DirectionCodec(new StepTable(STEP, 22.5));
+
+    @Test
+    @DisplayName("A* paths round-trip bit for bit, with the final snap coded as a jump")
+    void testRoundTripsAStarPath() {
+        LatticeAStar aStar = new LatticeAStar(STEP, STEP, 22.5, 10000);
+        SearchResult result = aStar.search(START_LNG, START_LAT, START_LNG + 0.002, START_LAT + 0.0013,
+                (fromLng, fromLat, lng, lat) -> true);
+        CoordinatePath path = new CoordinatePath(result.getPath());
+
+        DirectionCodec.Encoded encoded = codec.encode(path);
+        assertTrue(encoded.getMoves().endsWith("*"));
+        assertEquals(2, encoded.getJumps().length);
+
+        CoordinatePath decoded = codec.decode(encoded);
+        assertEquals(path.size(), decoded.size());
+        for (int i = 0; i < path.size(); i++) {
+            assertEquals(path.lng(i), decoded.lng(i), 0.0);
+            assertEquals(path.lat(i), decoded.lat(i), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Runs, hovers and jumps are coded as documented")
+    void testEncoding() {
+        StepTable steps = new StepTable(STEP, 22.5);
+        double[] coords = new double[14];
+        coords[0] = START_LNG;
+        coords[1] = START_LAT;
+        for (int i = 1; i <= 3; i++) {
+            steps.step(coords[2 * i - 2], coords[2 * i - 1], 4, coords, 2 * i);
+        }
+        coords[8] = coords[6];
+        coords[9] = coords[7];
+        steps.step(coords[8], coords[9], 15, coords, 10);
+        coords[12] = 1.0;
+        coords[13] = 2.0;
+
+        DirectionCodec.Encoded encoded = codec.encode(new CoordinatePath(coords));
+        assertEquals("3e.p*", encoded.getMoves());
+        assertArrayEquals(new double[]{1.0, 2.0}, encoded.getJumps());
+        assertArrayEquals(coords, flatten(codec.decode(encoded)));
+    }
+
+    @Test
+    @DisplayName("A single-waypoint path has no moves")
+    void testSingleWaypoint() {
+        DirectionCodec.Encoded encoded = codec.encode(new CoordinatePath(new double[]{START_LNG, START_LAT}));
+        assertEquals("", encoded.getMoves());
+        assertEquals(1, codec.decode(encoded).size());
+    }
+
+    @Test
+    @DisplayName("Rejects unknown symbols and dangling counts")
+    void testRejectsMalformed() {
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(new DirectionCodec.Encoded(0, 0, "3z", new double[0])));
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decode(new DirectionCodec.Encoded(0, 0, "a12", new double[0])));
+    }
+
+    private static double[] flatten(CoordinatePath path) {
+        double[] coords = new double[path.size() * 2];
+        for (int i = 0; i < path.size(); i++) {
+            coords[2 * i] = path.lng(i);
+            coords[2 * i + 1] = path.lat(i);
+        }
+        return coords;
+    }
+}
@@ -0,0 +1,215 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatticeAStar / IndexedMinHeap Unit Tests")
+public class LatticeAStarTest {
+
+    private static final double STEP = 0.00015;
+    private final LatticeAStar aStar = new LatticeAStar(STEP, STEP, 22.5, 10000);
+
+    private static final double START_LNG = -3.1863580788986368;
+    private static final double START_LAT = 55.94468066708487;
+
+    @Test
+    @DisplayName("Open field path starts at start, ends exactly at goal and uses step-length moves")
+    void testOpenFieldPath() {
+        double endLng = START_LNG + 0.002;
+        double endLat = START_LAT + 0.0013;
+
+        SearchResult result = aStar.search(START_LNG, START_LAT, endLng, endLat, (fromLng, fromLat, lng, lat) -> true);
+
+        assertTrue(result.isFound());
+        double[] path = result.getPath();
+        assertEquals(START_LNG, path[0]);
+        assertEquals(START_LAT, path[1]);
+        assertEquals(endLng, path[path.length - 2]);
+        assertEquals(endLat, path[path.length - 1]);
+
+        // every move except the final snap onto the goal is exactly one step
+        for (int i = 2; i < path.length - 2; i += 2) {
+            double d = Math.hypot(path[i] - path[i - 2], path[i + 1] - path[i - 1]);
+            assertEquals(STEP, d, 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("Search routes around a blocked strip")
+    void testRoutesAroundWall() {
+        double wallLng = START_LNG + 0.0006;
+        int[] checks = new int[1];
+        LatticeAStar.StepFilter wall = (fromLng, fromLat, lng, lat) -> {
+            checks[0]++;
+            return !(Math.abs(lng - wallLng) < 0.0002 && lat < START_LAT + 0.0008);
+        };
+
+        SearchResult result = aStar.search(START_LNG, START_LAT, START_LNG + 0.0012, START_LAT, wall);
+
+        assertTrue(result.isFound());
+        assertEquals(checks[0], result.getStepChecks());
+        assertTrue(result.getNodes() >= result.getIterations());
+        double[] path = result.getPath();
+        for (int i = 2; i < path.length; i += 2) {
+            assertTrue(wall.allows(path[i - 2], path[i - 1], path[i], path[i + 1]), "move " + i / 2 + " is blocked");
+        }
+    }
+
+    @Test
+    @DisplayName("Final snap onto the goal is rejected when the filter blocks it")
+    void testBlockedSnapIsNotAccepted() {
+        double endLng = START_LNG + 0.00101;
+        LatticeAStar.StepFilter noSnap = (fromLng, fromLat, lng, lat) -> lng != endLng;
+
+        SearchResult result = aStar.search(START_LNG, START_LAT, endLng, START_LAT, noSnap);
+
+        assertFalse(result.isFound());
+    }
+
+    @Test
+    @DisplayName("Enclosed start fails within the iteration cap")
+    void testEnclosedStartFails() {
+        LatticeAStar capped = new LatticeAStar(STEP, STEP, 22.5, 500);
+        LatticeAStar.StepFilter box = (fromLng, fromLat, lng, lat) -> Math.abs(lng - START_LNG) < 0.0006 && Math.abs(lat - START_LAT) < 0.0006;
+
+        SearchResult result = capped.search(START_LNG, START_LAT, START_LNG + 0.01, START_LAT, box);
+
+        assertFalse(result.isFound());
+        assertNull(result.getPath());
+        assertTrue(result.getIterations() > 0);
+    }
+
+    @Test
+    @DisplayName("Bidirectional search joins both frontiers with step-length moves and ends exactly at goal")
+    void testBidirectionalOpenFieldPath() {
+        double endLng = START_LNG + 0.006;
+        double endLat = START_LAT - 0.0041;
+
+        SearchResult forward = aStar.search(START_LNG, START_LAT, endLng, endLat, (fromLng, fromLat, lng, lat) -> true);
+        SearchResult result = aStar.searchBidirectional(START_LNG, START_LAT, endLng, endLat, (fromLng, fromLat, lng, lat) -> true);
+
+        assertTrue(result.isFound());
+        assertTrue(result.getIterations() < forward.getIterations());
+        double[] path = result.getPath();
+        assertEquals(START_LNG, path[0]);
+        assertEquals(START_LAT, path[1]);
+        assertEquals(endLng, path[path.length - 2]);
+        assertEquals(endLat, path[path.length - 1]);
+        assertTrue(Math.hypot(path[path.length - 2] - path[path.length - 4], path[path.length - 1] - path[path.length - 3]) < STEP);
+    }
+
+    @Test
+    @DisplayName("Bidirectional search asks the filter about every move in flight direction")
+    void testBidirectionalRoutesAroundWall() {
+        double wallLng = START_LNG + 0.0006;
+        List<double[]> asked = new ArrayList<>();
+        LatticeAStar.StepFilter wall = (fromLng, fromLat, lng, lat) -> {
+            asked.add(new double[]{fromLng, fromLat, lng, lat});
+            return !(Math.abs(lng - wallLng) < 0.0002 && lat < START_LAT + 0.0008);
+        };
+
+        SearchResult result = aStar.searchBidirectional(START_LNG, START_LAT, START_LNG + 0.0012, START_LAT, wall);
+
+        assertTrue(result.isFound());
+        assertEquals(asked.size(), result.getStepChecks());
+        double[] path = result.getPath();
+        for (int i = 2; i < path.length; i += 2) {
+            assertTrue(wall.allows(path[i - 2], path[i - 1], path[i], path[i + 1]), "move " + i / 2 + " is blocked");
+        }
+    }
+
+    @Test
+    @DisplayName("Enclosed goal fails bidirectionally, and a spent time budget stops the search")
+    void testBidirectionalBudgets() {
+        // no move crosses the boundary of a small box around the goal
+        LatticeAStar.StepFilter box = (fromLng, fromLat, lng, lat) ->
+                (Math.abs(fromLng - START_LNG - 0.01) < 0.0006 && Math.abs(fromLat - START_LAT) < 0.0006)
+                        == (Math.abs(lng - START_LNG - 0.01) < 0.0006 && Math.abs(lat - START_LAT) < 0.0006);
+
+        SearchResult enclosed = aStar.searchBidirectional(START_LNG, START_LAT, START_LNG + 0.01, START_LAT, box);
+        assertFalse(enclosed.isFound());
+
+        LatticeAStar timed = new LatticeAStar(STEP, STEP, 22.5, Integer.MAX_VALUE, 1);
+        SearchResult result = timed.searchBidirectional(START_LNG, START_LAT, START_LNG + 0.05, START_LAT + 0.05, (fromLng, fromLat, lng, lat) -> true);
+        assertFalse(result.isFound());
+        assertTrue(result.getIterations() <= 256);
+    }
+
+    @Test
+    @DisplayName("A node reached again by a shorter route is a full step from its new parent")
+    void testReparentedNodesStayOnSteps() {
+        Random random = new Random(7);
+        for (int leg = 0; leg < 40; leg++) {
+            // a few random walls between start and goal, so open nodes are often reached again
+            double[][] walls = new double[3][];
+            for (int w = 0; w < walls.length; w++) {
+                double lng = START_LNG + 0.0004 + 0.0015 * random.nextDouble();
+                double lat = START_LAT - 0.001 + 0.002 * random.nextDouble();
+                walls[w] = new double[]{lng, lat, lng + 0.0001 + 0.0003 * random.nextDouble(), lat + 0.0003 + 0.0008 * random.nextDouble()};
+            }
+            Set<List<Double>> allowed = new HashSet<>();
+            LatticeAStar.StepFilter filter = (fromLng, fromLat, lng, lat) -> {
+                for (double[] wall : walls) {
+                    if (lng >= wall[0] && lng <= wall[2] && lat >= wall[1] && lat <= wall[3]) {
+                        return false;
+                    }
+                }
+                allowed.add(List.of(fromLng, fromLat, lng, lat));
+                return true;
+            };
+            double endLng = START_LNG + 0.0022 + 0.0005 * random.nextDouble();
+            double endLat = START_LAT - 0.0005 + 0.001 * random.nextDouble();
+
+            assertStepsAllowed(aStar.search(START_LNG, START_LAT, endLng, endLat, filter), allowed, true);
+            allowed.clear();
+            assertStepsAllowed(aStar.searchNear(START_LNG, START_LAT, endLng, endLat, filter), allowed, false);
+            allowed.clear();
+            assertStepsAllowed(aStar.searchBidirectional(START_LNG, START_LAT, endLng, endLat, filter), allowed, true);
+        }
+    }
+
+    // every move is one the filter allowed and, except a final snap onto the goal, exactly one step
+    private static void assertStepsAllowed(SearchResult result, Set<List<Double>> allowed, boolean snapped) {
+        assertTrue(result.isFound());
+        double[] path = result.getPath();
+        int steps = snapped ? path.length - 2 : path.length;
+        for (int i = 2; i < path.length; i += 2) {
+            assertTrue(allowed.contains(List.of(path[i - 2], path[i - 1], path[i], path[i + 1])), "move " + i / 2 + " was never allowed");
+            if (i < steps) {
+                assertEquals(STEP, Math.hypot(path[i] - path[i - 2], path[i + 1] - path[i - 1]), 1e-12, "move " + i / 2);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Heap polls in priority order after decrease-key")
+    void testHeapDecreaseKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        Random random = new Random(42);
+        double[] priorities = new double[200];
+        for (int id = 0; id < priorities.length; id++) {
+            priorities[id] = random.nextDouble();
+            heap.offer(id, priorities[id]);
+        }
+        for (int id = 0; id < priorities.length; id += 3) {
+            priorities[id] /= 2;
+            heap.offer(id, priorities[id]);
+        }
+        // a higher priority must not move an id down
+        heap.offer(1, 10.0);
+
+        double previous = -1;
+        int polled = 0;
+        while (!heap.isEmpty()) {
+            int id = heap.poll();
+            assertTrue(priorities[id] >= previous);
+            previous = priorities[id];
+            polled++;
+        }
+        assertEquals(priorities.length, polled);
+    }
+}
@@ -0,0 +1,71 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("NearestPointIndex Unit Tests")
+public class NearestPointIndexTest {
+
+    /**
+     * The linear scan the index replaces: points visited in key order, strict improvement only.
+     */
+    private static int bruteForce(double[] xs, double[] ys, int[] keys, boolean[] removed, double x, double y) {
+        Integer[] order = new Integer[xs.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(i -> keys[i]));
+
+        int best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i : order) {
+            if (removed[i]) continue;
+            double dx = x - xs[i];
+            double dy = y - ys[i];
+            double d = Math.sqrt(dx * dx + dy * dy);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Test
+    @DisplayName("Matches a key-ordered linear scan while points are removed, including exact ties")
+    void testMatchesLinearScan() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 30; trial++) {
+            int n = 1 + random.nextInt(200);
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                // a coarse grid produces plenty of duplicate points and equal distances
+                xs[i] = random.nextInt(12) * 0.001;
+                ys[i] = random.nextInt(12) * 0.001;
+                keys[i] = random.nextInt(1000);
+            }
+            Set<Integer> used = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                while (!used.add(keys[i])) keys[i]++;
+            }
+
+            NearestPointIndex index = new NearestPointIndex(xs, ys, keys);
+            boolean[] removed = new boolean[n];
+            double x = 0.005, y = 0.005;
+            for (int step = 0; step < n; step++) {
+                int expected = bruteForce(xs, ys, keys, removed, x, y);
+                assertEquals(expected, index.nearest(x, y));
+                index.remove(expected);
+                removed[expected] = true;
+                x = xs[expected];
+                y = ys[expected];
+            }
+            assertEquals(0, index.size());
+            assertEquals(-1, index.nearest(x, y));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import ilpREST.ilp_submission_1.dto.Position;
+import ilpREST.ilp_submission_1.dto.RequestRegion;
+import ilpREST.ilp_submission_1.services.PositionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RestrictedZoneIndex Unit Tests")
+public class RestrictedZoneIndexTest {
+
+    private final PositionService positionService = new PositionService();
+
+    private static RequestRegion.Region region(String name, double... lngLat) {
+        List<Position> vertices = new ArrayList<>();
+        for (int i = 0; i < lngLat.length; i += 2) {
+            vertices.add(new Position(lngLat[i], lngLat[i + 1]));
+        }
+        RequestRegion.Region region = new RequestRegion.Region();
+        region.setName(name);
+        region.setVertices(vertices);
+        return region;
+    }
+
+    @Test
+    @DisplayName("Agrees with PositionService.isInRegion on random polygons and points")
+    void testMatchesIsInRegion() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 20; trial++) {
+            List<RequestRegion.Region> regions = new ArrayList<>();
+            int count = 1 + random.nextInt(8);
+            for (int k = 0; k < count; k++) {
+                double cx = random.nextDouble();
+                double cy = random.nextDouble();
+                int sides = 3 + random.nextInt(6);
+                double[] coords = new double[(sides + 1) * 2];
+                for (int i = 0; i < sides; i++) {
+                    double angle = 2 * Math.PI * i / sides;
+                    double radius = 0.05 + 0.2 * random.nextDouble();
+                    coords[2 * i] = cx + radius * Math.cos(angle);
+                    coords[2 * i + 1] = cy + radius * Math.sin(angle);
+                }
+                coords[2 * sides] = coords[0];
+                coords[2 * sides + 1] = coords[1];
+                regions.add(region("zone" + k, coords));
+            }
+
+            RestrictedZoneIndex index = RestrictedZoneIndex.compile(regions);
+            for (int q = 0; q < 2000; q++) {
+                Position pt = new Position(-0.3 + 1.6 * random.nextDouble(), -0.3 + 1.6 * random.nextDouble());
+                boolean expected = false;
+                for (RequestRegion.Region r : regions) {
+                    expected |= positionService.isInRegion(pt, r.getVertices());
+                }
+                assertEquals(expected, index.contains(pt.getLng(), pt.getLat()), "point " + pt);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A move that clips a polygon corner is blocked although both endpoints are outside")
+    void testMoveClippingCornerIsBlocked() {
+        RestrictedZoneIndex index = RestrictedZoneIndex.compile(List.of(
+                region("diamond", 0, -1, 1, 0, 0, 1, -1, 0, 0, -1)));
+
+        // from (-1, 0.9) to (1, 0.9) passes over the top corner (0, 1)
+        assertFalse(index.contains(-1, 0.9));
+        assertFalse(index.contains(1, 0.9));
+        assertTrue(index.blocksMove(-1, 0.9, 1, 0.9));
+
+        assertFalse(index.blocksMove(-1, 1.1, 1, 1.1));
+        assertTrue(index.blocksMove(-2, 0, 0, 0));
+        assertFalse(index.blocksMove(5, 5, 6, 6));
+        assertFalse(RestrictedZoneIndex.EMPTY.blocksMove(-1, 0, 1, 0));
+    }
+
+    private static boolean segmentsCross(double ax, double ay, double bx, double by,
+                                         double cx, double cy, double dx, double dy) {
+        double d1 = (dx - cx) * (ay - cy) - (dy - cy) * (ax - cx);
+        double d2 = (dx - cx) * (by - cy) - (dy - cy) * (bx - cx);
+        double d3 = (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+        double d4 = (bx - ax) * (dy - ay) - (by - ay) * (dx - ax);
+        return d1 * d2 <= 0 && d3 * d4 <= 0;
+    }
+
+    // whether the segment meets the rectangle: an endpoint inside, or crossing one of its sides
+    private static boolean segmentMeetsBox(double ax, double ay, double bx, double by,
+                                           double minX, double minY, double maxX, double maxY) {
+        if (ax >= minX && ax <= maxX && ay >= minY && ay <= maxY) {
+            return true;
+        }
+        return segmentsCross(ax, ay, bx, by, minX, minY, maxX, minY)
+                || segmentsCross(ax, ay, bx, by, maxX, minY, maxX, maxY)
+                || segmentsCross(ax, ay, bx, by, maxX, maxY, minX, maxY)
+                || segmentsCross(ax, ay, bx, by, minX, maxY, minX, minY);
+    }
+
+    @Test
+    @DisplayName("Corridor check agrees with meeting any grown zone bounding box, for short and long segments")
+    void testCorridorTouchesZone() {
+        Random random = new Random(21);
+        List<RequestRegion.Region> regions = new ArrayList<>();
+        List<double[]> boxes = new ArrayList<>();
+        for (int k = 0; k < 12; k++) {
+            double x = random.nextDouble(), y = random.nextDouble();
+            double w = 0.01 + 0.05 * random.nextDouble(), h = 0.01 + 0.05 * random.nextDouble();
+            regions.add(region("zone" + k, x, y, x + w, y, x + w, y + h, x, y + h, x, y));
+            boxes.add(new double[]{x, y, x + w, y + h});
+        }
+        RestrictedZoneIndex index = RestrictedZoneIndex.compile(regions);
+        double halfWidth = 0.003;
+
+        for (int q = 0; q < 5000; q++) {
+            double ax = -0.1 + 1.2 * random.nextDouble(), ay = -0.1 + 1.2 * random.nextDouble();
+            double length = q % 2 == 0 ? 0.02 * random.nextDouble() : random.nextDouble();
+            double angle = 2 * Math.PI * random.nextDouble();
+            double bx = ax + length * Math.cos(angle), by = ay + length * Math.sin(angle);
+
+            boolean expected = false;
+            for (double[] box : boxes) {
+                expected |= segmentMeetsBox(ax, ay, bx, by,
+                        box[0] - halfWidth, box[1] - halfWidth, box[2] + halfWidth, box[3] + halfWidth);
+            }
+            assertEquals(expected, index.corridorTouchesZone(ax, ay, bx, by, halfWidth),
+                    "segment " + ax + "," + ay + " -> " + bx + "," + by);
+        }
+        assertFalse(RestrictedZoneIndex.EMPTY.corridorTouchesZone(0, 0, 1, 1, halfWidth));
+    }
+
+    @Test
+    @DisplayName("Empty and null region lists contain nothing")
+    void testEmpty() {
+        assertSame(RestrictedZoneIndex.EMPTY, RestrictedZoneIndex.compile(null));
+        assertTrue(RestrictedZoneIndex.compile(List.of()).isEmpty());
+        assertFalse(RestrictedZoneIndex.EMPTY.contains(-3.186, 55.944));
+    }
+
+    @Test
+    @DisplayName("Rejects the same malformed polygons as isInRegion")
+    void testRejectsMalformedPolygons() {
+        assertThrows(IllegalArgumentException.class, () ->
+                RestrictedZoneIndex.compile(List.of(region("triangle-open", 0, 0, 1, 0, 1, 1))));
+        assertThrows(IllegalArgumentException.class, () ->
+                RestrictedZoneIndex.compile(List.of(region("open", 0, 0, 1, 0, 1, 1, 0, 1))));
+    }
+
+    @Test
+    @DisplayName("Version depends only on polygon content")
+    void testVersionIsContentBased() {
+        RequestRegion.Region square = region("square", 0, 0, 1, 0, 1, 1, 0, 1, 0, 0);
+        RequestRegion.Region renamed = region("renamed", 0, 0, 1, 0, 1, 1, 0, 1, 0, 0);
+        RequestRegion.Region moved = region("square", 0, 0, 2, 0, 2, 1, 0, 1, 0, 0);
+
+        assertEquals(RestrictedZoneIndex.compile(List.of(square)).getVersion(),
+                RestrictedZoneIndex.compile(List.of(renamed)).getVersion());
+        assertNotEquals(RestrictedZoneIndex.compile(List.of(square)).getVersion(),
+                RestrictedZoneIndex.compile(List.of(moved)).getVersion());
+    }
+}
@@ -0,0 +1,63 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import ilpREST.ilp_submission_1.dto.Position;
+import ilpREST.ilp_submission_1.services.PositionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StepTable Unit Tests")
+public class StepTableTest {
+
+    private static final double STEP = 0.00015;
+    private static final double START_LNG = -3.1863580788986368;
+    private static final double START_LAT = 55.94468066708487;
+
+    private final StepTable steps = new StepTable(STEP, 22.5);
+    private final PositionService positionService = new PositionService();
+
+    @Test
+    @DisplayName("Table steps are bit-identical to the trig formula for all 16 directions")
+    void testMatchesTrig() {
+        assertEquals(16, steps.directions());
+        double[] out = new double[2];
+        for (int d = 0; d < 16; d++) {
+            double rad = Math.toRadians(d * 22.5);
+            steps.step(START_LNG, START_LAT, d, out, 0);
+            assertEquals(START_LNG + STEP * Math.cos(rad), out[0], 0.0);
+            assertEquals(START_LAT + STEP * Math.sin(rad), out[1], 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Maps compass angles to directions and rejects everything else")
+    void testDirectionOf() {
+        assertEquals(0, steps.directionOf(0));
+        assertEquals(4, steps.directionOf(90));
+        assertEquals(15, steps.directionOf(337.5));
+        assertEquals(-1, steps.directionOf(360));
+        assertEquals(-1, steps.directionOf(-22.5));
+        assertEquals(-1, steps.directionOf(10));
+        assertEquals(-1, steps.directionOf(Double.NaN));
+    }
+
+    @Test
+    @DisplayName("PositionService primitive and Position variants agree")
+    void testPositionServiceVariantsAgree() {
+        Position start = new Position(START_LNG, START_LAT);
+        double[] out = new double[4];
+        for (int d = 0; d < 16; d++) {
+            Position next = positionService.nextPosition(start, d * 22.5);
+            positionService.nextPosition(START_LNG, START_LAT, d, out, 2);
+            assertEquals(next.getLng(), out[2], 0.0);
+            assertEquals(next.getLat(), out[3], 0.0);
+        }
+
+        // angles outside [0, 360) still go through trig
+        Position wrapped = positionService.nextPosition(start, 382.5);
+        double rad = Math.toRadians(382.5);
+        assertEquals(START_LNG + STEP * Math.cos(rad), wrapped.getLng(), 0.0);
+        assertEquals(START_LAT + STEP * Math.sin(rad), wrapped.getLat(), 0.0);
+    }
+}
@@ -0,0 +1,141 @@
+package ilpREST.ilp_submission_1.pathfinding;
+
+import ilpREST.ilp_submission_1.dto.Position;
+import ilpREST.ilp_submission_1.dto.RequestRegion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VisibilityRouter / VisibilityGraph Unit Tests")
+public class VisibilityRouterTest {
+
+    private static final double STEP = 0.00015;
+    private final VisibilityRouter router = new VisibilityRouter(STEP, STEP, 22.5, 2 * STEP, 8 * STEP, 2000);
+    private final StepTable steps = new StepTable(STEP, 22.5);
+
+    private static RequestRegion.Region box(double minLng, double minLat, double maxLng, double maxLat) {
+        RequestRegion.Region region = new RequestRegion.Region();
+        region.setName("box");
+        region.setVertices(List.of(new Position(minLng, minLat), new Position(maxLng, minLat),
+                new Position(maxLng, maxLat), new Position(minLng, maxLat), new Position(minLng, minLat)));
+        return region;
+    }
+
+    // every move but the last is one step table direction and no move is blocked
+    private void assertLegal(double[] path, double startLng, double startLat, double endLng, double endLat, RestrictedZoneIndex zones) {
+        assertEquals(startLng, path[0]);
+        assertEquals(startLat, path[1]);
+        assertEquals(endLng, path[path.length - 2]);
+        assertEquals(endLat, path[path.length - 1]);
+        for (int i = 2; i < path.length; i += 2) {
+            assertFalse(zones.blocksMove(path[i - 2], path[i - 1], path[i], path[i + 1]), "move " + i / 2 + " is blocked");
+            if (i < path.length - 2) {
+                boolean stepMove = false;
+                for (int d = 0; d < steps.directions(); d++) {
+                    stepMove |= path[i - 2] + steps.dLng(d) == path[i] && path[i - 1] + steps.dLat(d) == path[i + 1];
+                }
+                assertTrue(stepMove, "move " + i / 2 + " is not a step");
+            } else {
+                assertTrue(Math.hypot(path[i] - path[i - 2], path[i + 1] - path[i - 1]) < STEP);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("An open leg is walked straight, about one move per step of distance")
+    void testOpenLeg() {
+        double startLng = -3.19, startLat = 55.94;
+        double endLng = startLng + 0.03, endLat = startLat + 0.011;
+
+        SearchResult result = router.route(startLng, startLat, endLng, endLat, RestrictedZoneIndex.EMPTY);
+
+        assertTrue(result.isFound());
+        assertLegal(result.getPath(), startLng, startLat, endLng, endLat, RestrictedZoneIndex.EMPTY);
+        double moves = result.getPath().length / 2.0 - 1;
+        assertTrue(moves <= Math.ceil(Math.hypot(0.03, 0.011) / STEP / Math.cos(Math.toRadians(11.25))) + 1);
+    }
+
+    @Test
+    @DisplayName("Legs blocked by zones go around them with legal moves")
+    void testRoutesAroundZones() {
+        RestrictedZoneIndex zones = RestrictedZoneIndex.compile(List.of(
+                box(-3.1920, 55.9380, -3.1900, 55.9500),
+                box(-3.1850, 55.9350, -3.1840, 55.9450),
+                box(-3.1860, 55.9470, -3.1800, 55.9480)));
+        Random random = new Random(9);
+        int found = 0;
+        for (int trial = 0; trial < 100; trial++) {
+            double startLng, startLat, endLng, endLat;
+            do {
+                startLng = -3.20 + 0.03 * random.nextDouble();
+                startLat = 55.93 + 0.03 * random.nextDouble();
+            } while (zones.contains(startLng, startLat));
+            do {
+                endLng = -3.20 + 0.03 * random.nextDouble();
+                endLat = 55.93 + 0.03 * random.nextDouble();
+            } while (zones.contains(endLng, endLat));
+
+            SearchResult result = router.route(startLng, startLat, endLng, endLat, zones);
+            if (result.isFound()) {
+                found++;
+                assertLegal(result.getPath(), startLng, startLat, endLng, endLat, zones);
+            }
+        }
+        assertTrue(found >= 95, "found " + found);
+    }
+
+    @Test
+    @DisplayName("An end enclosed by a zone ring cannot be routed")
+    void testEnclosedEnd() {
+        // a ring: a square with a square hole, as one polygon walking the outside then the inside
+        RequestRegion.Region ring = new RequestRegion.Region();
+        ring.setName("ring");
+        ring.setVertices(List.of(
+                new Position(-3.190, 55.940), new Position(-3.180, 55.940), new Position(-3.180, 55.950),
+                new Position(-3.190, 55.950), new Position(-3.190, 55.940),
+                new Position(-3.188, 55.942), new Position(-3.188, 55.948), new Position(-3.182, 55.948),
+                new Position(-3.182, 55.942), new Position(-3.188, 55.942), new Position(-3.190, 55.940)));
+        RestrictedZoneIndex zones = RestrictedZoneIndex.compile(List.of(ring));
+        assertFalse(zones.contains(-3.185, 55.945));
+
+        SearchResult result = router.route(-3.20, 55.945, -3.185, 55.945, zones);
+
+        assertFalse(result.isFound());
+    }
+
+    @Test
+    @DisplayName("Concurrent legs share one graph per zone version, and the oldest builds are dropped")
+    void testGraphCache() throws Exception {
+        RestrictedZoneIndex zones = RestrictedZoneIndex.compile(List.of(box(-3.1920, 55.9380, -3.1900, 55.9500)));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<VisibilityGraph>> lookups = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                lookups.add(pool.submit(() -> {
+                    start.await();
+                    return router.graph(zones);
+                }));
+            }
+            start.countDown();
+            VisibilityGraph first = lookups.get(0).get();
+            for (Future<VisibilityGraph> lookup : lookups) {
+                assertSame(first, lookup.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        VisibilityGraph original = router.graph(zones);
+        for (int i = 1; i <= 7; i++) {
+            router.graph(RestrictedZoneIndex.compile(List.of(box(-3.19, 55.94, -3.19 + 0.001 * i, 55.941))));
+        }
+        assertSame(original, router.graph(zones));
+        router.graph(RestrictedZoneIndex.compile(List.of(box(-3.19, 55.94, -3.182, 55.941))));
+        assertNotSame(original, router.graph(zones));
+    }
+}
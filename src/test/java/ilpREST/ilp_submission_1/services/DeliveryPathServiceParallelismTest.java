@@ -0,0 +1,54 @@
+package ilpREST.ilp_submission_1.services;
+
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.model.DeliveryPlan;
+import ilpREST.ilp_submission_1.testutil.OfflinePlannerFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeliveryPathService parallel planning Tests")
+public class DeliveryPathServiceParallelismTest {
+
+    private final OfflinePlannerFixture fixture = new OfflinePlannerFixture();
+
+    private DeliveryPlan plan(int parallelism, List<MedDispatchRec> requests) {
+        DeliveryPathService service = fixture.deliveryPathService(parallelism);
+        try {
+            return service.planDeliveries(requests);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Candidates evaluated on a parallel pool give the plan of a single-thread pool")
+    void testParallelCandidatesMatchSingleThread() {
+        for (long seed = 1; seed <= 3; seed++) {
+            List<MedDispatchRec> requests = OfflinePlannerFixture.requests(seed, 60, 1);
+
+            DeliveryPlan sequential = plan(1, requests);
+            DeliveryPlan parallel = plan(8, requests);
+
+            assertFalse(sequential.getLegsByDrone().isEmpty());
+            OfflinePlannerFixture.assertSamePlan(sequential, parallel);
+        }
+    }
+
+    @Test
+    @DisplayName("Dates planned concurrently merge into the plan of a single-thread pool")
+    void testParallelDatesMatchSingleThread() {
+        for (long seed = 1; seed <= 3; seed++) {
+            List<MedDispatchRec> requests = OfflinePlannerFixture.requests(seed, 120, 5);
+
+            DeliveryPlan sequential = plan(1, requests);
+            DeliveryPlan parallel = plan(8, requests);
+
+            assertTrue(sequential.getLegsByDrone().size() > 1);
+            OfflinePlannerFixture.assertSamePlan(sequential, parallel);
+        }
+    }
+}
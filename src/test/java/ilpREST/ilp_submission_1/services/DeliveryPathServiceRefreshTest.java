@@ -0,0 +1,66 @@
+package ilpREST.ilp_submission_1.services;
+
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.model.AssignedFlight;
+import ilpREST.ilp_submission_1.model.DeliveryPlan;
+import ilpREST.ilp_submission_1.testutil.OfflinePlannerFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeliveryPathService incremental candidate refresh Tests")
+public class DeliveryPathServiceRefreshTest {
+
+    private final OfflinePlannerFixture fixture = new OfflinePlannerFixture();
+
+    /**
+     * A plan together with each date's flights, as "drone@servicePoint:deliveries", in assignment order.
+     */
+    private record Run(DeliveryPlan plan, Map<LocalDate, List<String>> flights) {}
+
+    private Run plan(boolean incremental, List<MedDispatchRec> requests) {
+        DeliveryPathService service = new DeliveryPathService(
+                fixture.getReferenceDataService(), fixture.availabilityService(), fixture.getPositionService(),
+                fixture.pathGenerator(), fixture.getMetrics(), 4, incremental);
+        Map<LocalDate, List<String>> flights = new ConcurrentSkipListMap<>();
+        try {
+            DeliveryPlan plan = service.planDeliveries(requests, new DeliveryPathService.PlanningListener() {
+                @Override
+                public void flightAssigned(LocalDate date, AssignedFlight flight) {
+                    flights.computeIfAbsent(date, d -> new ArrayList<>()).add(flight.getDroneId() + "@"
+                            + flight.getServicePointId() + ":" + flight.getDeliveries().stream().map(MedDispatchRec::getId).toList());
+                }
+            });
+            return new Run(plan, flights);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Rebuilding only affected candidates picks the same flights, in the same order, as a full rebuild")
+    void testIncrementalMatchesFullRebuild() {
+        // drone 3 is listed twice, so its candidates always tie with an identical twin
+        assertTrue(fixture.getReferenceData().getFleetIndex().size() > fixture.getReferenceData().getDrones().stream()
+                .map(drone -> drone.getId()).distinct().count());
+
+        boolean tiedDroneFlew = false;
+        for (long seed = 1; seed <= 8; seed++) {
+            List<MedDispatchRec> requests = OfflinePlannerFixture.requests(seed, 150, 3);
+
+            Run full = plan(false, requests);
+            Run incremental = plan(true, requests);
+
+            assertFalse(full.flights().isEmpty());
+            assertEquals(full.flights(), incremental.flights(), "seed " + seed);
+            OfflinePlannerFixture.assertSamePlan(full.plan(), incremental.plan());
+            tiedDroneFlew |= full.flights().values().stream().flatMap(List::stream).anyMatch(f -> f.startsWith("3@"));
+        }
+        assertTrue(tiedDroneFlew);
+    }
+}
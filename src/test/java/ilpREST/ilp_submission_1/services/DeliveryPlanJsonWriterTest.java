@@ -0,0 +1,82 @@
+package ilpREST.ilp_submission_1.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ilpREST.ilp_submission_1.dto.CalcDeliveryPathResponse;
+import ilpREST.ilp_submission_1.model.DeliveryPlan;
+import ilpREST.ilp_submission_1.model.FlightLeg;
+import ilpREST.ilp_submission_1.pathfinding.CoordinatePath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeliveryPlanJsonWriter Unit Tests")
+public class DeliveryPlanJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DeliveryPlanJsonWriter writer = new DeliveryPlanJsonWriter(objectMapper, new PositionService());
+
+    private static String write(DeliveryPlanJsonWriter writer, DeliveryPlan plan) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(plan, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Streamed JSON is identical to serialising the response DTO")
+    void testMatchesDtoSerialisation() throws Exception {
+        CoordinatePath out = new CoordinatePath(new double[]{-3.1863580788986368, 55.94468066708487, -3.18621, 55.94473});
+        CoordinatePath back = new CoordinatePath(new double[]{-3.18621, 55.94473, -3.1863580788986368, 55.94468066708487});
+        CoordinatePath hover = new CoordinatePath(new double[]{-3.19, 55.95});
+
+        Map<String, List<FlightLeg>> legsByDrone = new LinkedHashMap<>();
+        legsByDrone.put("1", List.of(new FlightLeg(7, out), new FlightLeg(null, back)));
+        legsByDrone.put("4", List.of(new FlightLeg(12, hover), new FlightLeg(null, hover)));
+        DeliveryPlan plan = new DeliveryPlan(13.75, 42, legsByDrone);
+
+        List<CalcDeliveryPathResponse.DronePath> dronePaths = new ArrayList<>();
+        for (Map.Entry<String, List<FlightLeg>> entry : legsByDrone.entrySet()) {
+            List<CalcDeliveryPathResponse.DeliveryPath> deliveries = new ArrayList<>();
+            for (FlightLeg leg : entry.getValue()) {
+                deliveries.add(new CalcDeliveryPathResponse.DeliveryPath(leg.getDeliveryId(), leg.getPath().toPositions()));
+            }
+            dronePaths.add(new CalcDeliveryPathResponse.DronePath(entry.getKey(), deliveries));
+        }
+        String expected = objectMapper.writeValueAsString(new CalcDeliveryPathResponse(13.75, 42, dronePaths));
+
+        assertEquals(expected, write(writer, plan));
+    }
+
+    @Test
+    @DisplayName("Compact legs carry the start point, run-length move codes and jump targets")
+    void testCompactLegs() throws Exception {
+        PositionService positionService = new PositionService();
+        double[] coords = new double[8];
+        coords[0] = -3.1863580788986368;
+        coords[1] = 55.94468066708487;
+        positionService.nextPosition(coords[0], coords[1], 2, coords, 2);
+        positionService.nextPosition(coords[2], coords[3], 2, coords, 4);
+        coords[6] = -3.18621;
+        coords[7] = 55.94473;
+
+        Map<String, List<FlightLeg>> legsByDrone = new LinkedHashMap<>();
+        legsByDrone.put("1", List.of(new FlightLeg(7, new CoordinatePath(coords))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeCompact(new DeliveryPlan(2.5, 3, legsByDrone), out);
+
+        assertEquals("{\"totalCost\":2.5,\"totalMoves\":3,\"dronePaths\":[{\"droneId\":\"1\",\"deliveries\":["
+                + "{\"deliveryId\":7,\"start\":[-3.1863580788986368,55.94468066708487],\"moves\":\"2c*\","
+                + "\"jumps\":[[-3.18621,55.94473]]}]}]}", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("An empty plan streams an empty dronePaths array")
+    void testEmptyPlan() throws Exception {
+        DeliveryPlan plan = new DeliveryPlan(0.0, 0, new LinkedHashMap<>());
+        assertEquals("{\"totalCost\":0.0,\"totalMoves\":0,\"dronePaths\":[]}", write(writer, plan));
+    }
+}
@@ -2,6 +2,7 @@ package ilpREST.ilp_submission_1.services;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import ilpREST.ilp_submission_1.dto.*;
+import ilpREST.ilp_submission_1.testutil.TestRequestFactory;
 
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -9,15 +10,16 @@ import static org.junit.jupiter.api.Assertions.*;
 public class DroneServiceTest {
 
     private DroneService service;
-    private final AvailabilityService availabilityService = new AvailabilityService("https://ilp-rest-2025-bvh6e9hschfagrgy.ukwest-01.azurewebsites.net/");;
+    private final ReferenceDataService referenceDataService = new ReferenceDataService("https://ilp-rest-2025-bvh6e9hschfagrgy.ukwest-01.azurewebsites.net/");
+    private final AvailabilityService availabilityService = new AvailabilityService(referenceDataService);
     private final PositionService positionService = new  PositionService();
 
     @BeforeEach
     void setUp() {
         this.service = new DroneService(
+                referenceDataService,
                 this.availabilityService,
-                positionService,
-                "https://ilp-rest-2025-bvh6e9hschfagrgy.ukwest-01.azurewebsites.net/");
+                positionService);
 
     }
 
@@ -120,6 +122,22 @@ public class DroneServiceTest {
         }
     }
 
+    @Test
+    void testQueryAvailableDronesBatchMatchesSingleQueries(){
+        List<List<MedDispatchRec>> sets = List.of(
+                TestRequestFactory.createSimpleNorthDelivery(),
+                TestRequestFactory.createCoolingRequiredDelivery(),
+                TestRequestFactory.createHeatingRequiredDelivery(),
+                TestRequestFactory.createMultiDeliveryRequest(),
+                List.of());
+        List<List<String>> batch = service.queryAvailableDronesBatch(sets);
+
+        assertEquals(sets.size(), batch.size());
+        for (int i = 0; i < sets.size(); i++) {
+            assertEquals(service.queryAvailableDrones(sets.get(i)), batch.get(i), "set " + i);
+        }
+    }
+
     @Test
     void testGetServicePointDrones(){
         List<ServicePointInfo> spis = availabilityService.getServicePointInfos();
@@ -0,0 +1,52 @@
+package ilpREST.ilp_submission_1.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LegPathCache Unit Tests")
+public class LegPathCacheTest {
+
+    private static double[] path(int waypoints) {
+        return new double[waypoints * 2];
+    }
+
+    @Test
+    @DisplayName("Hit and miss counts follow lookups, keyed by end points and zone version")
+    void testHitsAndMisses() {
+        LegPathCache cache = new LegPathCache(1000);
+        double[] leg = path(10);
+
+        assertNull(cache.get(1.0, 2.0, 3.0, 4.0, 7L));
+        cache.put(1.0, 2.0, 3.0, 4.0, 7L, leg);
+
+        assertSame(leg, cache.get(1.0, 2.0, 3.0, 4.0, 7L));
+        assertNull(cache.get(1.0, 2.0, 3.0, 4.0, 8L));
+        assertNull(cache.get(3.0, 4.0, 1.0, 2.0, 7L));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Least recently used legs are evicted once the waypoint budget is exceeded")
+    void testWeightedEviction() {
+        LegPathCache cache = new LegPathCache(100);
+        cache.put(0, 0, 1, 1, 0L, path(40));
+        cache.put(0, 0, 2, 2, 0L, path(40));
+        cache.get(0, 0, 1, 1, 0L);
+        cache.put(0, 0, 3, 3, 0L, path(40));
+
+        assertNotNull(cache.get(0, 0, 1, 1, 0L));
+        assertNull(cache.get(0, 0, 2, 2, 0L));
+        assertNotNull(cache.get(0, 0, 3, 3, 0L));
+        assertEquals(80, cache.getWaypoints());
+        assertEquals(1, cache.getEvictions());
+
+        // a single leg over budget is never cached
+        cache.put(0, 0, 4, 4, 0L, path(101));
+        assertNull(cache.get(0, 0, 4, 4, 0L));
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,70 @@
+package ilpREST.ilp_submission_1.services;
+
+import ilpREST.ilp_submission_1.dto.Position;
+import ilpREST.ilp_submission_1.model.FlightLeg;
+import ilpREST.ilp_submission_1.pathfinding.RestrictedZoneIndex;
+import ilpREST.ilp_submission_1.testutil.TestRequestFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PlannerMetrics leg route Tests")
+public class PlannerMetricsTest {
+
+    private static final Position APPLETON_TOWER = TestRequestFactory.getAppletonTower();
+    private static final RestrictedZoneIndex ZONES =
+            RestrictedZoneIndex.compile(TestRequestFactory.getStandardRestrictedAreas());
+
+    private final PositionService positionService = new PositionService();
+
+    // plans Appleton Tower -> delivery -> Appleton Tower and returns the legs per route tag
+    private Map<String, Long> legsByRoute(boolean visibilityGraph, boolean bidirectional, Position delivery) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FlightPathGenerator generator = new FlightPathGenerator(positionService, new LegPathCache(0),
+                new PlannerMetrics(registry), visibilityGraph, bidirectional, 10000, 0);
+
+        List<FlightLeg> legs = generator.planFlight(APPLETON_TOWER.getLng(), APPLETON_TOWER.getLat(),
+                List.of(TestRequestFactory.createDeliveryWithId(1, delivery)), ZONES);
+        assertNotNull(legs);
+
+        Map<String, Long> counts = new TreeMap<>();
+        for (String route : List.of("direct", "visibility", "bidi", "forward")) {
+            long count = registry.get("ilp.planner.leg").tag("route", route).timer().count();
+            if (count > 0) {
+                counts.put(route, count);
+            }
+        }
+        return counts;
+    }
+
+    @Test
+    @DisplayName("Each planned leg is timed under the route that served it")
+    void testLegsTaggedByRoute() {
+        Position open = new Position(-3.178, 55.946);
+        Position behindGeorgeSquare = new Position(-3.192, 55.944);
+
+        assertEquals(Map.of("direct", 2L), legsByRoute(true, true, open));
+        assertEquals(Map.of("visibility", 2L), legsByRoute(true, true, behindGeorgeSquare));
+        assertEquals(Map.of("bidi", 2L), legsByRoute(false, true, behindGeorgeSquare));
+        assertEquals(Map.of("forward", 2L), legsByRoute(false, false, behindGeorgeSquare));
+    }
+
+    @Test
+    @DisplayName("Search effort is recorded under the route that searched")
+    void testSearchEffortTaggedByRoute() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FlightPathGenerator generator = new FlightPathGenerator(positionService, new LegPathCache(0),
+                new PlannerMetrics(registry), false, false, 10000, 0);
+
+        generator.planFlight(APPLETON_TOWER.getLng(), APPLETON_TOWER.getLat(),
+                List.of(TestRequestFactory.createDeliveryWithId(1, new Position(-3.192, 55.944))), ZONES);
+
+        assertEquals(2, registry.get("ilp.planner.astar.iterations").tag("route", "forward").summary().count());
+        assertEquals(0, registry.get("ilp.planner.astar.iterations").tag("route", "bidi").summary().count());
+        assertTrue(registry.get("ilp.planner.astar.step.checks").tag("route", "forward").counter().count() > 0);
+    }
+}
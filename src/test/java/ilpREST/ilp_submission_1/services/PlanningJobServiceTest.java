@@ -0,0 +1,192 @@
+package ilpREST.ilp_submission_1.services;
+
+import ilpREST.ilp_submission_1.dto.MedDispatchRec;
+import ilpREST.ilp_submission_1.dto.PlanningJobStatus;
+import ilpREST.ilp_submission_1.model.DeliveryPlan;
+import ilpREST.ilp_submission_1.model.PlanningJob;
+import ilpREST.ilp_submission_1.testutil.OfflinePlannerFixture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PlanningJobService Unit Tests")
+public class PlanningJobServiceTest {
+
+    private final OfflinePlannerFixture fixture = new OfflinePlannerFixture();
+    private final List<MedDispatchRec> requests = OfflinePlannerFixture.requests(5, 90, 4);
+
+    /**
+     * Planner that holds its run after the first finished date until released, then optionally
+     * throws from the planner pool instead of carrying on.
+     */
+    private class GatedPlanner extends DeliveryPathService {
+        final CountDownLatch firstDate = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile RuntimeException failure;
+
+        GatedPlanner() {
+            super(fixture.getReferenceDataService(), fixture.availabilityService(), fixture.getPositionService(),
+                    fixture.pathGenerator(), fixture.getMetrics(), 1);
+        }
+
+        @Override
+        public DeliveryPlan planDeliveries(List<MedDispatchRec> batch, PlanningListener listener) {
+            return super.planDeliveries(batch, new PlanningListener() {
+                @Override
+                public boolean isCancelled() {
+                    return listener.isCancelled();
+                }
+
+                @Override
+                public void dateCompleted(LocalDate date, DeliveryPlan datePlan) {
+                    listener.dateCompleted(date, datePlan);
+                    firstDate.countDown();
+                    try {
+                        assertTrue(release.await(30, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    if (failure != null) {
+                        throw failure;
+                    }
+                }
+            });
+        }
+    }
+
+    private static PlanningJob awaitFinished(PlanningJobService jobs, String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        PlanningJob job = jobs.find(id).orElseThrow();
+        while (!job.isFinished()) {
+            assertTrue(System.nanoTime() < deadline, "job " + id + " did not finish");
+            Thread.sleep(5);
+            job = jobs.find(id).orElseThrow();
+        }
+        return job;
+    }
+
+    @Test
+    @DisplayName("A submitted job is polled to completion and returns the synchronous plan")
+    void testSubmitPollComplete() throws Exception {
+        DeliveryPathService planner = fixture.deliveryPathService(2);
+        PlanningJobService jobs = new PlanningJobService(planner, 1, 4, 60000);
+        try {
+            PlanningJob job = jobs.submit(requests);
+            assertEquals(4, job.getTotalDates());
+
+            PlanningJob finished = awaitFinished(jobs, job.getId());
+
+            assertEquals(PlanningJob.Status.COMPLETED, finished.getStatus());
+            assertEquals(4, finished.getCompletedDates());
+            OfflinePlannerFixture.assertSamePlan(planner.planDeliveries(requests), finished.currentPlan());
+
+            PlanningJobStatus status = PlanningJobService.describe(finished);
+            assertEquals("COMPLETED", status.getStatus());
+            assertNotNull(status.getStartedAt());
+            assertNotNull(status.getFinishedAt());
+            assertNull(status.getError());
+        } finally {
+            jobs.shutdown();
+            planner.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Cancelling a running job stops it with the dates finished so far")
+    void testCancelRunningKeepsPartialPlan() throws Exception {
+        GatedPlanner planner = new GatedPlanner();
+        PlanningJobService jobs = new PlanningJobService(planner, 1, 4, 60000);
+        try {
+            PlanningJob job = jobs.submit(requests);
+            assertTrue(planner.firstDate.await(60, TimeUnit.SECONDS));
+
+            assertTrue(jobs.cancel(job.getId()).isPresent());
+            assertEquals(PlanningJob.Status.RUNNING, job.getStatus());
+            DeliveryPlan partial = job.currentPlan();
+            planner.release.countDown();
+
+            PlanningJob finished = awaitFinished(jobs, job.getId());
+            assertEquals(PlanningJob.Status.CANCELLED, finished.getStatus());
+            assertTrue(finished.getCompletedDates() >= 1);
+            assertTrue(finished.getCompletedDates() < finished.getTotalDates());
+            assertFalse(partial.getLegsByDrone().isEmpty());
+            assertTrue(finished.currentPlan().getTotalMoves() >= partial.getTotalMoves());
+            assertNull(finished.getError());
+        } finally {
+            planner.release.countDown();
+            jobs.shutdown();
+            planner.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A cancellation that reaches the job wrapped in another exception is still CANCELLED")
+    void testWrappedCancellation() throws Exception {
+        GatedPlanner planner = new GatedPlanner();
+        planner.failure = new IllegalStateException(new CancellationException("Planning cancelled"));
+        PlanningJobService jobs = new PlanningJobService(planner, 1, 4, 60000);
+        try {
+            PlanningJob job = jobs.submit(requests);
+            assertTrue(planner.firstDate.await(60, TimeUnit.SECONDS));
+            jobs.cancel(job.getId());
+            planner.release.countDown();
+
+            assertEquals(PlanningJob.Status.CANCELLED, awaitFinished(jobs, job.getId()).getStatus());
+        } finally {
+            planner.release.countDown();
+            jobs.shutdown();
+            planner.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A planner failure without a cancel request is FAILED with its message")
+    void testFailure() throws Exception {
+        GatedPlanner planner = new GatedPlanner();
+        planner.failure = new IllegalStateException("upstream snapshot unusable");
+        planner.release.countDown();
+        PlanningJobService jobs = new PlanningJobService(planner, 1, 4, 60000);
+        try {
+            PlanningJob finished = awaitFinished(jobs, jobs.submit(requests).getId());
+
+            assertEquals(PlanningJob.Status.FAILED, finished.getStatus());
+            assertTrue(finished.getError().contains("upstream snapshot unusable"), finished.getError());
+        } finally {
+            jobs.shutdown();
+            planner.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("A job cancelled while queued behind another never runs")
+    void testCancelQueued() throws Exception {
+        GatedPlanner planner = new GatedPlanner();
+        PlanningJobService jobs = new PlanningJobService(planner, 1, 4, 60000);
+        try {
+            PlanningJob running = jobs.submit(requests);
+            PlanningJob queued = jobs.submit(requests);
+            assertTrue(planner.firstDate.await(60, TimeUnit.SECONDS));
+
+            jobs.cancel(queued.getId());
+            assertEquals(PlanningJob.Status.CANCELLED, queued.getStatus());
+            assertNull(queued.getStartedAt());
+            assertEquals(0, queued.getCompletedDates());
+
+            planner.release.countDown();
+            assertEquals(PlanningJob.Status.COMPLETED, awaitFinished(jobs, running.getId()).getStatus());
+            assertNull(queued.getStartedAt());
+            assertTrue(jobs.find("no-such-job").isEmpty());
+        } finally {
+            planner.release.countDown();
+            jobs.shutdown();
+            planner.shutdown();
+        }
+    }
+}
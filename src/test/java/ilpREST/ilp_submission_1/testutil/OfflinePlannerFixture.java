@@ -0,0 +1,198 @@
+package ilpREST.ilp_submission_1.testutil;
+
+import ilpREST.ilp_submission_1.dto.*;
+import ilpREST.ilp_submission_1.model.DeliveryPlan;
+import ilpREST.ilp_submission_1.model.FlightLeg;
+import ilpREST.ilp_submission_1.model.ReferenceData;
+import ilpREST.ilp_submission_1.pathfinding.CoordinatePath;
+import ilpREST.ilp_submission_1.services.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Planner wiring for tests that must not depend on the ILP endpoint: a fixed snapshot of three
+ * service points, a mixed fleet (drone 3 is listed twice, so two greedy candidates can tie exactly)
+ * and the standard restricted areas, served by a {@link ReferenceDataService} that never fetches.
+ * Every service built here gets its own leg cache, switched off, so runs cannot share planned legs.
+ */
+public class OfflinePlannerFixture {
+
+    public static final Position OCEAN_TERMINAL = new Position(-3.17732611501824, 55.981186279333656);
+    public static final Position HAYMARKET = new Position(-3.2180, 55.9458);
+
+    private final ReferenceData referenceData = new ReferenceData(
+            1, drones(), servicePointInfos(), servicePointLocations(), restrictedAreas());
+    private final ReferenceDataService referenceDataService = new ReferenceDataService("http://offline.invalid") {
+        @Override
+        public ReferenceData current() {
+            return referenceData;
+        }
+    };
+    private final PositionService positionService = new PositionService();
+    private final PlannerMetrics metrics = new PlannerMetrics(new SimpleMeterRegistry());
+
+    public ReferenceData getReferenceData() { return referenceData; }
+    public ReferenceDataService getReferenceDataService() { return referenceDataService; }
+    public PositionService getPositionService() { return positionService; }
+    public PlannerMetrics getMetrics() { return metrics; }
+
+    public AvailabilityService availabilityService() {
+        return new AvailabilityService(referenceDataService);
+    }
+
+    public FlightPathGenerator pathGenerator() {
+        return new FlightPathGenerator(positionService, new LegPathCache(0), metrics);
+    }
+
+    /**
+     * A planner on its own pool of the given parallelism. Callers shut it down.
+     */
+    public DeliveryPathService deliveryPathService(int parallelism) {
+        return new DeliveryPathService(
+                referenceDataService, availabilityService(), positionService, pathGenerator(), metrics, parallelism);
+    }
+
+    /**
+     * Random requests outside the restricted areas, spread over consecutive dates from a Monday,
+     * with mixed requirements and about half of them cost-capped.
+     */
+    public static List<MedDispatchRec> requests(long seed, int count, int dates) {
+        Random random = new Random(seed);
+        List<RequestRegion.Region> zones = TestRequestFactory.getStandardRestrictedAreas();
+        LocalDate monday = LocalDate.of(2026, 1, 19);
+        List<MedDispatchRec> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Position delivery;
+            do {
+                delivery = new Position(-3.200 + 0.025 * random.nextDouble(), 55.936 + 0.016 * random.nextDouble());
+            } while (TestPathAssertions.isInRestrictedZone(delivery, zones));
+
+            MedDispatchRec.Requirements requirements = new MedDispatchRec.Requirements();
+            requirements.setCapacity(1 + random.nextInt(8));
+            requirements.setCooling(random.nextInt(4) == 0);
+            requirements.setHeating(random.nextInt(5) == 0);
+            requirements.setMaxCost(random.nextBoolean() ? 5.0 + random.nextInt(30) : null);
+
+            MedDispatchRec request = new MedDispatchRec();
+            request.setId(100 + i);
+            request.setDate(monday.plusDays(random.nextInt(dates)));
+            request.setTime(LocalTime.of(8 + random.nextInt(11), random.nextInt(60)));
+            request.setDelivery(delivery);
+            request.setRequirements(requirements);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    /**
+     * Asserts two plans are identical: totals, drone order, and every leg's delivery and waypoints.
+     */
+    public static void assertSamePlan(DeliveryPlan expected, DeliveryPlan actual) {
+        assertEquals(expected.getTotalCost(), actual.getTotalCost());
+        assertEquals(expected.getTotalMoves(), actual.getTotalMoves());
+        assertEquals(new ArrayList<>(expected.getLegsByDrone().keySet()), new ArrayList<>(actual.getLegsByDrone().keySet()));
+        for (Map.Entry<String, List<FlightLeg>> entry : expected.getLegsByDrone().entrySet()) {
+            List<FlightLeg> expectedLegs = entry.getValue();
+            List<FlightLeg> actualLegs = actual.getLegsByDrone().get(entry.getKey());
+            assertEquals(expectedLegs.size(), actualLegs.size(), "legs of drone " + entry.getKey());
+            for (int i = 0; i < expectedLegs.size(); i++) {
+                assertEquals(expectedLegs.get(i).getDeliveryId(), actualLegs.get(i).getDeliveryId());
+                CoordinatePath expectedPath = expectedLegs.get(i).getPath();
+                CoordinatePath actualPath = actualLegs.get(i).getPath();
+                assertEquals(expectedPath.size(), actualPath.size(), "leg " + i + " of drone " + entry.getKey());
+                for (int p = 0; p < expectedPath.size(); p++) {
+                    assertEquals(expectedPath.lng(p), actualPath.lng(p));
+                    assertEquals(expectedPath.lat(p), actualPath.lat(p));
+                }
+            }
+        }
+    }
+
+    private static List<Drone> drones() {
+        List<Drone> drones = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            drones.add(drone(String.valueOf(i), i));
+        }
+        drones.add(drone("3", 3));
+        return drones;
+    }
+
+    private static Drone drone(String id, int i) {
+        Drone.Capability cap = new Drone.Capability();
+        cap.setCooling(i % 2 == 0);
+        cap.setHeating(i % 3 == 0);
+        cap.setCapacity(4 + i);
+        cap.setMaxMoves(150 + 40 * i);
+        cap.setCostPerMove(0.01 + 0.005 * i);
+        cap.setCostInitial(1 + i % 4);
+        cap.setCostFinal(1 + (i * 7) % 3);
+
+        Drone drone = new Drone();
+        drone.setId(id);
+        drone.setName("Drone " + id);
+        drone.setCapability(cap);
+        return drone;
+    }
+
+    private static List<ServicePointInfo> servicePointInfos() {
+        List<ServicePointInfo> infos = new ArrayList<>();
+        for (long spId = 1; spId <= 3; spId++) {
+            List<ServicePointInfo.ServicePointDrone> spDrones = new ArrayList<>();
+            for (int i = 1; i <= 8; i++) {
+                if ((i + spId) % 4 == 0) {
+                    continue;
+                }
+                List<ServicePointInfo.AvailabilityInfo> windows = new ArrayList<>();
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    if ((day.getValue() + i + spId) % 3 != 0) {
+                        windows.add(new ServicePointInfo.AvailabilityInfo(
+                                day.name(), LocalTime.of((i % 3) * 4, 0), LocalTime.of(12 + (i % 4) * 3, 0)));
+                    }
+                }
+                ServicePointInfo.ServicePointDrone spDrone = new ServicePointInfo.ServicePointDrone();
+                spDrone.setId(String.valueOf(i));
+                spDrone.setAvailability(windows);
+                spDrones.add(spDrone);
+            }
+            ServicePointInfo info = new ServicePointInfo();
+            info.setServicePointId(spId);
+            info.setDrones(spDrones);
+            infos.add(info);
+        }
+        return infos;
+    }
+
+    private static List<ServicePointLocation> servicePointLocations() {
+        return List.of(
+                servicePoint(1L, "Appleton Tower", TestRequestFactory.getAppletonTower()),
+                servicePoint(2L, "Ocean Terminal", OCEAN_TERMINAL),
+                servicePoint(3L, "Haymarket", HAYMARKET));
+    }
+
+    private static ServicePointLocation servicePoint(long id, String name, Position location) {
+        ServicePointLocation servicePoint = new ServicePointLocation();
+        servicePoint.setId(id);
+        servicePoint.setName(name);
+        servicePoint.setLocation(location);
+        return servicePoint;
+    }
+
+    private static List<RestrictedArea> restrictedAreas() {
+        List<RestrictedArea> areas = new ArrayList<>();
+        long id = 1;
+        for (RequestRegion.Region region : TestRequestFactory.getStandardRestrictedAreas()) {
+            RestrictedArea area = new RestrictedArea();
+            area.setId(id++);
+            area.setName(region.getName());
+            area.setVertices(region.getVertices());
+            areas.add(area);
+        }
+        return areas;
+    }
+}